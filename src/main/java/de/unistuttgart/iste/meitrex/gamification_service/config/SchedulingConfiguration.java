@@ -0,0 +1,12 @@
+package de.unistuttgart.iste.meitrex.gamification_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled tasks, e.g. the periodic flush of the buffered dapr events.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -7,11 +7,13 @@ import de.unistuttgart.iste.meitrex.generated.dto.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -24,6 +26,7 @@ public class GamificationController {
     private final BadgeService badgeService;
     private final QuestService questService;
     private final BloomLevelService bloomLevelService;
+    private final ContentCompletionService contentCompletionService;
 
     /**
      * Creates a new course and saves it in the repositories, adds the creator of the course to it.
@@ -90,10 +93,10 @@ public class GamificationController {
                                      @Argument UUID chapterUUID,
                                      @Argument int skillPoints,
                                      @Argument List<SkillType> skillTypes) {
-        boolean flashCardSetWasCreated = bloomLevelService.addFlashCardSet(chapterUUID, courseUUID, flashCardSetUUID, skillPoints, skillTypes);
+        boolean flashCardSetWasCreated = bloomLevelService.addFlashCardSet(chapterUUID, courseUUID, flashCardSetUUID, name, skillPoints, skillTypes);
         if (flashCardSetWasCreated) {
-            badgeService.createBadgesForFlashCardSet(flashCardSetUUID, name, courseUUID, courseService.getCoursesUsers(courseUUID));
-            questService.createQuestForFlashCardSet(flashCardSetUUID, name, courseUUID);
+            badgeService.createBadgesForFlashCardSet(flashCardSetUUID, courseUUID, courseService.getCoursesUsers(courseUUID));
+            questService.createQuestForFlashCardSet(flashCardSetUUID, courseUUID);
             return "Created flashCardSet successfully.";
         }
         return "Error at creating flashCardSet.";
@@ -116,10 +119,10 @@ public class GamificationController {
                              @Argument UUID chapterUUID,
                              @Argument int skillPoints,
                              @Argument List<SkillType> skillTypes) {
-        boolean quizWasCreated = bloomLevelService.addQuiz(chapterUUID, courseUUID, quizUUID, skillPoints, skillTypes);
+        boolean quizWasCreated = bloomLevelService.addQuiz(chapterUUID, courseUUID, quizUUID, name, skillPoints, skillTypes);
         if (quizWasCreated) {
-            badgeService.createBadgesForQuiz(quizUUID, name, courseUUID, courseService.getCoursesUsers(courseUUID));
-            questService.createQuestForQuiz(quizUUID, name, courseUUID);
+            badgeService.createBadgesForQuiz(quizUUID, courseUUID, courseService.getCoursesUsers(courseUUID));
+            questService.createQuestForQuiz(quizUUID, courseUUID);
             return "Created quiz successfully.";
         }
         return "Error at creating quiz.";
@@ -157,7 +160,7 @@ public class GamificationController {
                                                      @Argument UUID chapterUUID) {
         boolean removedSuccessfully = bloomLevelService.removeContent(courseUUID, chapterUUID, flashCardSetUUID);
         if (removedSuccessfully) {
-            badgeService.deleteBadgesAndUserBadgesOfFCS(flashCardSetUUID);
+            badgeService.deleteBadgesAndUserBadgesOfFCS(courseUUID, flashCardSetUUID);
             questService.deleteQuestOfFCS(courseUUID, flashCardSetUUID);
             return "FlashCardSet deleted.";
         }
@@ -178,17 +181,33 @@ public class GamificationController {
                                              @Argument UUID chapterUUID) {
         boolean removedSuccessfully = bloomLevelService.removeContent(courseUUID, chapterUUID, quizUUID);
         if (removedSuccessfully) {
-            badgeService.deleteBadgesAndUserBadgesOfQuiz(quizUUID);
+            badgeService.deleteBadgesAndUserBadgesOfQuiz(courseUUID, quizUUID);
             questService.deleteQuestOfQuiz(courseUUID, quizUUID);
             return "Quiz deleted.";
         }
         return "Error at deleting quiz.";
     }
 
+    /**
+     * Moves the quest of the quiz or flashCardSet to another index of the quest chain. The progress of the users
+     * is kept, so a quest moved in front of the current quest of a user counts as finished.
+     *
+     * @param courseUUID       the id of the course
+     * @param contentUUID      the id of the quiz or flashCardSet of the quest
+     * @param index            the new index of the quest in the quest chain
+     */
+    @MutationMapping
+    public String moveQuest(@Argument UUID courseUUID, @Argument UUID contentUUID, @Argument int index) {
+        if (questService.moveQuest(courseUUID, contentUUID, index)) {
+            return "Quest moved.";
+        }
+        return "Error at moving quest.";
+    }
+
     /**
      * Changes the name, the skillPoints or the skillTypes of the flashCardSet.
-     * Therefore, the data in the repositories are updated, like the description of the
-     * flashCardSets badges or its quest.
+     * The name is saved once in the metadata of the flashCardSet, from which the descriptions of its
+     * badges and its quest are rendered.
      *
      * @param flashCardSetUUID       the id of the edited flashCardSet
      * @param courseUUID             the id of the course
@@ -204,10 +223,8 @@ public class GamificationController {
                                    @Argument String name,
                                    @Argument int skillPoints,
                                    @Argument List<SkillType> skillTypes) {
-        boolean flashCardSetExists = bloomLevelService.updateContent(courseUUID, flashCardSetUUID, chapterUUID, skillPoints, skillTypes);
+        boolean flashCardSetExists = bloomLevelService.updateContent(courseUUID, flashCardSetUUID, chapterUUID, name, skillPoints, skillTypes);
         if (flashCardSetExists) {
-            badgeService.changeFlashCardSetName(flashCardSetUUID, name);
-            questService.changeFlashCardSetName(flashCardSetUUID, courseUUID, name);
             return "Changed flashCardSet data!";
         }
         return "Error at editing flashCardSet.";
@@ -215,8 +232,8 @@ public class GamificationController {
 
     /**
      * Changes the name, the skillPoints or the skillTypes of the quiz.
-     * Therefore, the data in the repositories are updated, like the description of the
-     * quiz badges or its quest.
+     * The name is saved once in the metadata of the quiz, from which the descriptions of its
+     * badges and its quest are rendered.
      *
      * @param quizUUID          the id of the edited quiz
      * @param courseUUID        the id of the course
@@ -232,10 +249,8 @@ public class GamificationController {
                            @Argument String name,
                            @Argument int skillPoints,
                            @Argument List<SkillType> skillTypes) {
-        boolean quizExists = bloomLevelService.updateContent(courseUUID, quizUUID, chapterUUID, skillPoints, skillTypes);
+        boolean quizExists = bloomLevelService.updateContent(courseUUID, quizUUID, chapterUUID, name, skillPoints, skillTypes);
         if (quizExists) {
-            badgeService.changeQuizName(quizUUID, name);
-            questService.changeQuizName(quizUUID, courseUUID, name);
             return "Changed quiz data!";
         }
         return "Error at editing quiz.";
@@ -251,6 +266,17 @@ public class GamificationController {
         return playerTypeService.evaluateTest(userUUID);
     }
 
+    /**
+     * Finishes a batch of quizzes and flashCardSets at once. The completions are processed grouped by course,
+     * so every course is loaded and written once for the whole batch.
+     *
+     * @param completions       the completions of the users, each with its course, chapter, content and answers
+     */
+    @MutationMapping
+    public List<ContentCompletionResult> finishContentBatch(@Argument List<ContentCompletionInput> completions) {
+        return contentCompletionService.finishContentBatch(completions);
+    }
+
     /**
      * The user finishes a flashCardSet. It is checked, whether the requirements for achieving the
      * flashCardSets badges or quest are fulfilled. The user is rewarded some experience points for finishing
@@ -271,11 +297,9 @@ public class GamificationController {
                                      @Argument int totalAnswers,
                                      @Argument UUID chapterUUID) {
 
-        boolean finishingValid = bloomLevelService.grantRewardToUserForFinishingContent(courseUUID, userUUID, chapterUUID,
-                flashCardSetUUID, correctAnswers, totalAnswers);
+        boolean finishingValid = contentCompletionService.finishContent(userUUID, courseUUID, chapterUUID,
+                flashCardSetUUID, BadgeContentType.FLASH_CARD_SET, correctAnswers, totalAnswers);
         if (finishingValid) {
-            badgeService.markBadgesAsAchievedIfPassedFlashCardSet(userUUID, flashCardSetUUID, correctAnswers, totalAnswers);
-            questService.markQuestAsFinishedIfPassedFlashCardSet(userUUID, courseUUID, flashCardSetUUID, correctAnswers, totalAnswers);
             return "Finished flashCardSet!";
         }
         return "Error at finishing flashCardSet.";
@@ -301,11 +325,9 @@ public class GamificationController {
                              @Argument int totalAnswers,
                              @Argument UUID chapterUUID) {
 
-        boolean finishingValid = bloomLevelService.grantRewardToUserForFinishingContent(courseUUID, userUUID, chapterUUID,
-                        quizUUID, correctAnswers, totalAnswers);
+        boolean finishingValid = contentCompletionService.finishContent(userUUID, courseUUID, chapterUUID,
+                quizUUID, BadgeContentType.QUIZ, correctAnswers, totalAnswers);
         if (finishingValid) {
-            badgeService.markBadgesAsAchievedIfPassedQuiz(userUUID, quizUUID, correctAnswers, totalAnswers);
-            questService.markQuestAsFinishedIfPassedQuiz(userUUID, courseUUID, quizUUID, correctAnswers, totalAnswers);
             return "Finished quiz!";
         }
         return "Error at finishing quiz.";
@@ -323,6 +345,34 @@ public class GamificationController {
         return badgeService.getUserBadgesByCourseUUID(courseUUID, userUUID);
     }
 
+    /**
+     * Retrieves a page of the users badges for the course
+     *
+     * @param courseUUID       the id of the course
+     * @param userUUID         the id of the user
+     * @param filter           the filter of the badges, null to get all of them
+     * @param first            the maximum number of badges of the page
+     * @param after            the cursor of the previous page, null for the first page
+     */
+    @QueryMapping
+    public UserBadgePage getCoursesUserBadgesPage(@Argument UUID courseUUID,
+                                                  @Argument UUID userUUID,
+                                                  @Argument UserBadgeFilter filter,
+                                                  @Argument int first,
+                                                  @Argument String after) {
+        return badgeService.getUserBadgePage(courseUUID, userUUID, filter, first, after);
+    }
+
+    /**
+     * Resolves the descriptions of all the userBadges of a request at once
+     *
+     * @param userBadges       the userBadges, whose description was requested
+     */
+    @BatchMapping(typeName = "UserBadge", field = "description")
+    public Map<UserBadge, String> description(List<UserBadge> userBadges) {
+        return badgeService.getDescriptions(userBadges);
+    }
+
     /**
      * Retrieves the current quest of the user for the course
      *
@@ -356,6 +406,16 @@ public class GamificationController {
         return questService.getUserQuestChain(userUUID, courseUUID);
     }
 
+    /**
+     * Resolves the quests of all the user quest chains of a request at once
+     *
+     * @param userQuestChains  the user quest chains, whose quests were requested
+     */
+    @BatchMapping(typeName = "UserQuestChain", field = "quests")
+    public Map<UserQuestChain, List<Quest>> quests(List<UserQuestChain> userQuestChains) {
+        return questService.getQuests(userQuestChains);
+    }
+
     /**
      * Removes the user from the course. The user badges are the deleted, as well as the user quest chain
      * and the bloomLevel
@@ -0,0 +1,46 @@
+package de.unistuttgart.iste.meitrex.gamification_service.controller;
+
+import de.unistuttgart.iste.meitrex.gamification_service.dapr.ContentCreatedEvent;
+import de.unistuttgart.iste.meitrex.gamification_service.dapr.ContentProgressedEvent;
+import de.unistuttgart.iste.meitrex.gamification_service.dapr.CourseEventBuffer;
+import de.unistuttgart.iste.meitrex.gamification_service.dapr.UserEnrolledEvent;
+import io.dapr.Topic;
+import io.dapr.client.domain.CloudEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the dapr pub/sub subscriptions. The events are buffered and processed in micro-batches per
+ * course by the {@link CourseEventBuffer}. The responses are sent after the events were processed, so dapr
+ * redelivers the events, that were not processed.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class SubscriptionController {
+
+    private final CourseEventBuffer courseEventBuffer;
+
+    @Topic(name = "content-progressed", pubsubName = "meitrex")
+    @PostMapping(path = "/gamification-service/content-progressed-pubsub")
+    public Mono<Void> onContentProgressed(@RequestBody CloudEvent<ContentProgressedEvent> cloudEvent) {
+        return Mono.fromFuture(() -> courseEventBuffer.add(cloudEvent.getId(), cloudEvent.getData()));
+    }
+
+    @Topic(name = "content-created", pubsubName = "meitrex")
+    @PostMapping(path = "/gamification-service/content-created-pubsub")
+    public Mono<Void> onContentCreated(@RequestBody CloudEvent<ContentCreatedEvent> cloudEvent) {
+        return Mono.fromFuture(() -> courseEventBuffer.add(cloudEvent.getId(), cloudEvent.getData()));
+    }
+
+    @Topic(name = "user-enrolled", pubsubName = "meitrex")
+    @PostMapping(path = "/gamification-service/user-enrolled-pubsub")
+    public Mono<Void> onUserEnrolled(@RequestBody CloudEvent<UserEnrolledEvent> cloudEvent) {
+        return Mono.fromFuture(() -> courseEventBuffer.add(cloudEvent.getId(), cloudEvent.getData()));
+    }
+
+}
@@ -0,0 +1,39 @@
+package de.unistuttgart.iste.meitrex.gamification_service.dapr;
+
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when a quiz or a flashCardSet was created in a course.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentCreatedEvent implements CourseEvent {
+
+    public enum ContentType {
+        QUIZ,
+        FLASH_CARD_SET
+    }
+
+    private UUID contentUUID;
+
+    private ContentType contentType;
+
+    private String name;
+
+    private UUID courseUUID;
+
+    private UUID chapterUUID;
+
+    private int skillPoints;
+
+    private List<SkillType> skillTypes;
+
+}
@@ -0,0 +1,30 @@
+package de.unistuttgart.iste.meitrex.gamification_service.dapr;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Published when a user finished a quiz or a flashCardSet.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentProgressedEvent implements CourseEvent {
+
+    private UUID userUUID;
+
+    private UUID courseUUID;
+
+    private UUID chapterUUID;
+
+    private UUID contentUUID;
+
+    private int correctAnswers;
+
+    private int totalAnswers;
+
+}
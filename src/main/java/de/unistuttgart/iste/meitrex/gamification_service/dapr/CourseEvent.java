@@ -0,0 +1,12 @@
+package de.unistuttgart.iste.meitrex.gamification_service.dapr;
+
+import java.util.UUID;
+
+/**
+ * An event received via dapr pub/sub, that refers to a course. The events are buffered and processed per course.
+ */
+public interface CourseEvent {
+
+    UUID getCourseUUID();
+
+}
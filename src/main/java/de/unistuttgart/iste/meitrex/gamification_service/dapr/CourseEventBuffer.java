@@ -0,0 +1,148 @@
+package de.unistuttgart.iste.meitrex.gamification_service.dapr;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Buffers the events received via dapr pub/sub into micro-batches per course. The buffer is flushed periodically,
+ * when too many events are pending and on shutdown.
+ * <p>
+ * An event is acknowledged only after the transaction, that processed it, committed. Events lost in the buffer,
+ * e.g. by a crash, and events of a failed batch are therefore redelivered by dapr, and the processor skips the
+ * redelivered events, that were already processed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseEventBuffer {
+
+    /**
+     * An event waiting in the buffer.
+     *
+     * @param event              the received event
+     * @param acknowledgement    completed when the event was processed, completed exceptionally if it failed
+     */
+    private record PendingEvent(ReceivedCourseEvent event, CompletableFuture<Void> acknowledgement) {
+    }
+
+    private final CourseEventProcessor courseEventProcessor;
+
+    @Value("${gamification.events.max-pending:10000}")
+    private int maxPendingEvents;
+
+    private final Map<UUID, List<PendingEvent>> pendingEventsByCourse = new LinkedHashMap<>();
+
+    private int pendingEvents = 0;
+
+    /**
+     * Serializes the flushes, so the micro-batches of a course are processed in the order they were received.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * Adds an event to the micro-batch of its course. If too many events are pending, the buffer is flushed
+     * before returning.
+     *
+     * @param eventId     the id of the cloud event, which identifies redeliveries of the event
+     * @param event       the received event
+     *
+     * @return completed when the event was processed, so the event can be acknowledged
+     */
+    public CompletableFuture<Void> add(String eventId, CourseEvent event) {
+
+        if (event == null || event.getCourseUUID() == null) {
+            log.warn("Dropped event without course: {}", event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+        boolean full;
+        synchronized (pendingEventsByCourse) {
+            pendingEventsByCourse.computeIfAbsent(event.getCourseUUID(), courseUUID -> new ArrayList<>())
+                    .add(new PendingEvent(new ReceivedCourseEvent(eventId, event), acknowledgement));
+            pendingEvents++;
+            full = pendingEvents >= maxPendingEvents;
+        }
+        if (full) {
+            flush();
+        }
+        return acknowledgement;
+
+    }
+
+    /**
+     * @return the number of events, that were received but not processed yet
+     */
+    public int getPendingEvents() {
+        synchronized (pendingEventsByCourse) {
+            return pendingEvents;
+        }
+    }
+
+    /**
+     * Processes all pending events, one micro-batch per course.
+     */
+    @Scheduled(fixedDelayString = "${gamification.events.flush-interval-ms:500}",
+            initialDelayString = "${gamification.events.flush-interval-ms:500}")
+    public void flush() {
+
+        synchronized (flushLock) {
+            Map<UUID, List<PendingEvent>> batches;
+            synchronized (pendingEventsByCourse) {
+                if (pendingEvents == 0) {
+                    return;
+                }
+                batches = new LinkedHashMap<>(pendingEventsByCourse);
+                pendingEventsByCourse.clear();
+                pendingEvents = 0;
+            }
+            batches.forEach(this::process);
+        }
+
+    }
+
+    /**
+     * Processes the micro-batch of a course in one transaction. If the batch fails, its events are processed one
+     * by one, so only the failing events are redelivered.
+     *
+     * @param courseUUID     the id of the course
+     * @param batch          the pending events of the course
+     */
+    private void process(UUID courseUUID, List<PendingEvent> batch) {
+
+        try {
+            courseEventProcessor.process(courseUUID, batch.stream().map(PendingEvent::event).toList());
+            batch.forEach(pendingEvent -> pendingEvent.acknowledgement().complete(null));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not process the {} events of course {}, processing them one by one",
+                    batch.size(), courseUUID, e);
+        }
+
+        for (PendingEvent pendingEvent : batch) {
+            try {
+                courseEventProcessor.process(courseUUID, List.of(pendingEvent.event()));
+                pendingEvent.acknowledgement().complete(null);
+            } catch (RuntimeException e) {
+                log.error("Could not process event {} of course {}, it will be redelivered",
+                        pendingEvent.event(), courseUUID, e);
+                pendingEvent.acknowledgement().completeExceptionally(e);
+            }
+        }
+
+    }
+
+    @PreDestroy
+    public void drain() {
+        log.info("Draining {} pending events", getPendingEvents());
+        flush();
+    }
+
+}
@@ -0,0 +1,188 @@
+package de.unistuttgart.iste.meitrex.gamification_service.dapr;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.ProcessedEventRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.service.*;
+import de.unistuttgart.iste.meitrex.generated.dto.ContentCompletionInput;
+import de.unistuttgart.iste.meitrex.generated.dto.ContentCompletionResult;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies a micro-batch of events of one course, using the same logic as the GraphQL mutations.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseEventProcessor {
+
+    private final ContentCompletionService contentCompletionService;
+
+    private final BadgeService badgeService;
+
+    private final QuestService questService;
+
+    private final CourseService courseService;
+
+    private final BloomLevelService bloomLevelService;
+
+    private final ProcessedEventRepository processedEventRepository;
+
+    @Value("${gamification.events.deduplication-retention-hours:168}")
+    private long deduplicationRetentionHours;
+
+    /**
+     * Processes the events of a course in the order they were received, in one transaction. Consecutive
+     * content-progressed events are finished together as one batch, content-created and user-enrolled events are
+     * applied in between, so a user can enroll and finish content within the same micro-batch.
+     * <p>
+     * The ids of the events are saved in the same transaction, so redelivered events, that were already processed,
+     * are skipped. If any event fails, the whole transaction is rolled back and the exception is thrown, so the
+     * events are processed one by one or redelivered. An enrollment of a user, who is already a member of the
+     * course, does not fail.
+     *
+     * @param courseUUID     the id of the course
+     * @param events         the events of the course, in the order they were received
+     */
+    @Transactional
+    public void process(UUID courseUUID, List<ReceivedCourseEvent> events) {
+
+        List<ContentCompletionInput> completions = new ArrayList<>();
+        for (ReceivedCourseEvent receivedEvent : events) {
+            if (receivedEvent.eventId() != null && processedEventRepository.insertIfAbsent(receivedEvent.eventId()) == 0) {
+                log.debug("Skipped redelivered event {} of course {}", receivedEvent.eventId(), courseUUID);
+                continue;
+            }
+
+            CourseEvent event = receivedEvent.event();
+            if (event instanceof ContentProgressedEvent contentProgressed) {
+                completions.add(toCompletionInput(contentProgressed));
+                continue;
+            }
+
+            finishCompletions(courseUUID, completions);
+            if (event instanceof ContentCreatedEvent contentCreated) {
+                createContent(contentCreated);
+            } else if (event instanceof UserEnrolledEvent userEnrolled) {
+                addUserToCourse(userEnrolled);
+            }
+        }
+        finishCompletions(courseUUID, completions);
+
+    }
+
+    /**
+     * Forgets the ids of the events, that were processed before the retention period. Dapr does not redeliver
+     * events that late.
+     */
+    @Scheduled(fixedDelayString = "${gamification.events.deduplication-cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpiredProcessedEvents() {
+        int deleted = processedEventRepository.deleteProcessedBefore(
+                OffsetDateTime.now().minusHours(deduplicationRetentionHours));
+        log.debug("Deleted {} expired processed event ids", deleted);
+    }
+
+    /**
+     * Finishes the collected completions as one batch and clears the list.
+     *
+     * @param courseUUID      the id of the course
+     * @param completions     the collected completions
+     *
+     * @throws IllegalStateException if any of the completions was rejected
+     */
+    private void finishCompletions(UUID courseUUID, List<ContentCompletionInput> completions) {
+
+        if (completions.isEmpty()) {
+            return;
+        }
+        List<ContentCompletionResult> results = contentCompletionService.finishContentBatch(completions);
+        long rejected = results.stream().filter(result -> ! result.getSuccess()).count();
+        if (rejected > 0) {
+            throw new IllegalStateException("Rejected " + rejected + " of " + results.size()
+                    + " content-progressed events of course " + courseUUID);
+        }
+        completions.clear();
+
+    }
+
+    /**
+     * Adds the user to the course and assigns the badges, the quest chain and the bloom level of the course to the
+     * user, like the addUserToCourse mutation.
+     *
+     * @param event     the user-enrolled event
+     *
+     * @throws IllegalStateException if the course does not exist
+     */
+    private void addUserToCourse(UserEnrolledEvent event) {
+
+        UUID userUUID = event.getUserUUID();
+        UUID courseUUID = event.getCourseUUID();
+        if (courseService.addUserToCourse(userUUID, courseUUID)) {
+            badgeService.assignCoursesBadgesToUser(courseUUID, userUUID);
+            questService.assignQuestChainToUser(userUUID, courseUUID);
+            bloomLevelService.addUserToCourse(userUUID, courseUUID);
+        } else if (! courseService.getCoursesUsers(courseUUID).contains(userUUID)) {
+            throw new IllegalStateException("Could not add user " + userUUID + " to course " + courseUUID);
+        }
+
+    }
+
+    /**
+     * Creates the content and all the badges and the quest for it, like the createQuiz and createFlashCardSet
+     * mutations.
+     *
+     * @param event     the content-created event
+     *
+     * @throws IllegalStateException if the content could not be created
+     */
+    private void createContent(ContentCreatedEvent event) {
+
+        UUID contentUUID = event.getContentUUID();
+        UUID courseUUID = event.getCourseUUID();
+        switch (event.getContentType()) {
+            case QUIZ -> {
+                if (! bloomLevelService.addQuiz(event.getChapterUUID(), courseUUID, contentUUID, event.getName(),
+                        event.getSkillPoints(), event.getSkillTypes())) {
+                    throw new IllegalStateException("Could not create quiz " + contentUUID + " in course " + courseUUID);
+                }
+                badgeService.createBadgesForQuiz(contentUUID, courseUUID, courseService.getCoursesUsers(courseUUID));
+                questService.createQuestForQuiz(contentUUID, courseUUID);
+            }
+            case FLASH_CARD_SET -> {
+                if (! bloomLevelService.addFlashCardSet(event.getChapterUUID(), courseUUID, contentUUID,
+                        event.getName(), event.getSkillPoints(), event.getSkillTypes())) {
+                    throw new IllegalStateException("Could not create flashCardSet " + contentUUID
+                            + " in course " + courseUUID);
+                }
+                badgeService.createBadgesForFlashCardSet(contentUUID, courseUUID,
+                        courseService.getCoursesUsers(courseUUID));
+                questService.createQuestForFlashCardSet(contentUUID, courseUUID);
+            }
+        }
+        log.debug("Processed content-created event for content {}", contentUUID);
+
+    }
+
+    private ContentCompletionInput toCompletionInput(ContentProgressedEvent event) {
+
+        ContentCompletionInput completion = new ContentCompletionInput();
+        completion.setUserUUID(event.getUserUUID());
+        completion.setCourseUUID(event.getCourseUUID());
+        completion.setChapterUUID(event.getChapterUUID());
+        completion.setContentUUID(event.getContentUUID());
+        completion.setCorrectAnswers(event.getCorrectAnswers());
+        completion.setTotalAnswers(event.getTotalAnswers());
+        return completion;
+
+    }
+
+}
@@ -0,0 +1,10 @@
+package de.unistuttgart.iste.meitrex.gamification_service.dapr;
+
+/**
+ * An event received via dapr pub/sub together with the id of its cloud event.
+ *
+ * @param eventId     the id of the cloud event, which stays the same when dapr redelivers the event
+ * @param event       the received event
+ */
+public record ReceivedCourseEvent(String eventId, CourseEvent event) {
+}
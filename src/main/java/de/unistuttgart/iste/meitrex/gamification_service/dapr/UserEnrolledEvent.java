@@ -0,0 +1,22 @@
+package de.unistuttgart.iste.meitrex.gamification_service.dapr;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Published when a user joined a course.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEnrolledEvent implements CourseEvent {
+
+    private UUID userUUID;
+
+    private UUID courseUUID;
+
+}
@@ -6,6 +6,9 @@ import lombok.*;
 import java.util.UUID;
 
 @Entity(name = "Badge")
+@Table(indexes = {
+        @Index(name = "idx_badge_course_percentage", columnList = "courseUUID, passingPercentage, badgeUUID")
+})
 @Getter
 @Setter
 @ToString
@@ -18,8 +21,6 @@ public class BadgeEntity {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID badgeUUID;
 
-    private String description;
-
     private int passingPercentage;
 
     private UUID quizUUID;
@@ -28,4 +29,9 @@ public class BadgeEntity {
 
     private UUID courseUUID;
 
+    /**
+     * The stable ordinal of the quiz or flashCardSet in the course, which locates the badge in the bitset storage.
+     */
+    private Integer contentOrdinal;
+
 }
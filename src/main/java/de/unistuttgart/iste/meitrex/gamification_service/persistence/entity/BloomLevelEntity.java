@@ -6,6 +6,9 @@ import lombok.*;
 import java.util.UUID;
 
 @Entity(name = "BloomLevel")
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_bloom_level_user_course", columnNames = {"userUUID", "courseUUID"})
+})
 @Getter
 @Setter
 @ToString
@@ -24,9 +27,4 @@ public class BloomLevelEntity {
 
     private int collectedExp;
 
-    public int addExp(int exp) {
-        collectedExp += exp;
-        return collectedExp;
-    }
-
 }
@@ -7,6 +7,9 @@ import lombok.*;
 import java.util.UUID;
 
 @Entity(name = "ContentMetaData")
+@Table(indexes = {
+        @Index(name = "idx_content_meta_data_course_chapter", columnList = "course_uuid, chapter_uuid")
+})
 @Getter
 @Setter
 @ToString
@@ -18,10 +21,41 @@ public class ContentMetaDataEntity {
     @Id
     private UUID contentUUID;
 
+    /**
+     * The name of the quiz or flashCardSet, from which the descriptions of its badges and quest are rendered.
+     */
+    private String name;
+
     private int skillPoints;
 
     private SkillType skillType;
 
+    @Column(name = "course_uuid")
+    private UUID courseUUID;
+
+    @Column(name = "chapter_uuid")
+    private UUID chapterUUID;
+
+    /**
+     * The index of the chapter in the course, which is the level the content belongs to. Null, like the chapter,
+     * for content created before its placement was stored in a course with several chapters, until the content is
+     * edited. Such content can not be finished until then, as it is not placed in any chapter.
+     */
+    private Integer level;
+
+    /**
+     * @param courseUUID      the id of the course
+     * @param chapterUUID     the id of the chapter
+     *
+     * @return whether the content is placed in the chapter of the course
+     */
+    public boolean isPlacedIn(UUID courseUUID, UUID chapterUUID) {
+        return courseUUID != null
+                && courseUUID.equals(this.courseUUID)
+                && chapterUUID != null
+                && chapterUUID.equals(this.chapterUUID);
+    }
+
     // Formula:
     // (correctAnswers / totalAnswers) * skillPoints * (skillLevel * 0,5)
     public double rewardOfFinishingContent(int correctAnswers, int totalAnswers) {
@@ -2,6 +2,7 @@ package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.*;
 
@@ -17,9 +18,6 @@ public class CourseEntity {
     @Id
     private UUID courseUUID;
 
-    @ElementCollection
-    private Set<UUID> userUUIDs;
-
     @ElementCollection
     private List<Integer> requiredExpPerLevel;
 
@@ -29,14 +27,22 @@ public class CourseEntity {
     @ElementCollection
     private Set<UUID> content;
 
-    public void addUser(UUID userUUID) {
-        this.userUUIDs.add(userUUID);
-    }
-
-    public void removeUser(UUID userUUID) {
-        if (this.userUUIDs != null) {
-            this.userUUIDs.removeIf(userUUID::equals);
-        }
+    /**
+     * The ordinal the next content of the course gets. Ordinals are never handed out twice.
+     */
+    @ColumnDefault("0")
+    private int nextContentOrdinal;
+
+    /**
+     * Cached thresholds of the levels, rebuilt lazily after requiredExpPerLevel changed.
+     */
+    @Transient
+    @ToString.Exclude
+    private LevelThresholds levelThresholds;
+
+    public void setRequiredExpPerLevel(List<Integer> requiredExpPerLevel) {
+        this.requiredExpPerLevel = requiredExpPerLevel;
+        this.levelThresholds = null;
     }
 
     public void addChapter(UUID chapterUUID) {
@@ -44,6 +50,7 @@ public class CourseEntity {
             this.requiredExpPerLevel = new ArrayList<>();
         }
         requiredExpPerLevel.add(0);
+        this.levelThresholds = null;
 
         if (this.chapters == null) {
             this.chapters = new LinkedList<>();
@@ -51,6 +58,13 @@ public class CourseEntity {
         this.chapters.add(chapterUUID);
     }
 
+    /**
+     * @return a new ordinal for content of the course
+     */
+    public int takeContentOrdinal() {
+        return this.nextContentOrdinal++;
+    }
+
     public int getLevelOfChapter(UUID chapterUUID) {
         if (this.chapters == null) {
             return -1;
@@ -76,57 +90,47 @@ public class CourseEntity {
             return false;
         }
         this.requiredExpPerLevel.set(level, requiredExpPerLevel.get(level) + (skillPoints / 2));
+        this.levelThresholds = null;
         return true;
     }
 
-    public void removeContent(UUID contentUUID, UUID chapter, int skillPoints) {
-        int level = this.getLevelOfChapter(chapter);
-        this.content.remove(contentUUID);
-        if (this.requiredExpPerLevel == null || this.requiredExpPerLevel.size() < level) {
+    /**
+     * Removes the content from the course and its skillPoints from the required exp of its level.
+     *
+     * @param contentUUID     the id of the removed content
+     * @param level           the level of the chapter, the content is placed in
+     * @param skillPoints     the skillPoints of the content
+     */
+    public void removeContent(UUID contentUUID, int level, int skillPoints) {
+        if (this.content != null) {
+            this.content.remove(contentUUID);
+        }
+        if (this.requiredExpPerLevel == null || level < 0 || level >= this.requiredExpPerLevel.size()) {
             return;
         }
         this.requiredExpPerLevel.set(level, requiredExpPerLevel.get(level) - (skillPoints / 2));
+        this.levelThresholds = null;
+    }
+
+    private LevelThresholds getLevelThresholds() {
+        if (this.levelThresholds == null) {
+            this.levelThresholds = new LevelThresholds(this.requiredExpPerLevel);
+        }
+        return this.levelThresholds;
     }
 
     public int calculateLevelForExp(int exp) {
         if (this.requiredExpPerLevel == null) {
             return 0;
         }
-
-        int currentLevel = 0;
-        int accumulatedExp = 0;
-
-        int i = 0;
-        for (Integer requiredExp : requiredExpPerLevel) {
-            accumulatedExp += requiredExp;
-
-            if (exp < accumulatedExp) {
-                break;
-            }
-
-            currentLevel = i + 1;
-            i++;
-        }
-
-        return currentLevel;
+        return getLevelThresholds().levelForExp(exp);
     }
 
     public int calculateRemainingExpForCurrentLevel(int exp) {
         if (this.requiredExpPerLevel == null || exp == 0) {
             return 0;
         }
-
-        int accumulatedExp = 0;
-
-        for (Integer requiredExp : requiredExpPerLevel) {
-            accumulatedExp += requiredExp;
-
-            if (exp < accumulatedExp) {
-                return requiredExp - (accumulatedExp - exp);
-            }
-        }
-
-        return exp - accumulatedExp;
+        return getLevelThresholds().remainingExpForCurrentLevel(exp);
     }
 
     public int getRequiredExpOfLevel(int level) {
@@ -0,0 +1,45 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Membership of a user in a course. The primary key (course_uuid, user_uuid) serves the lookups per course,
+ * the additional index the lookups per user.
+ */
+@Entity(name = "CourseMembership")
+@Table(name = "course_membership", indexes = {
+        @Index(name = "idx_course_membership_user_uuid", columnList = "user_uuid")
+})
+@IdClass(CourseMembershipEntity.PrimaryKey.class)
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseMembershipEntity {
+
+    @Id
+    @Column(name = "course_uuid", nullable = false)
+    private UUID courseUUID;
+
+    @Id
+    @Column(name = "user_uuid", nullable = false)
+    private UUID userUUID;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PrimaryKey implements Serializable {
+
+        private UUID courseUUID;
+
+        private UUID userUUID;
+
+    }
+
+}
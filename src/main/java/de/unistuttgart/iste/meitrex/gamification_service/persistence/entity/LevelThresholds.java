@@ -0,0 +1,72 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable cumulative exp thresholds of the levels of a course, built from the required exp per level.
+ * The level for an amount of exp is found with a binary search instead of summing up the levels on every call.
+ */
+public final class LevelThresholds {
+
+    /**
+     * The accumulated exp required to finish the levels up to and including the index.
+     */
+    private final int[] accumulatedExp;
+
+    /**
+     * The running maximum of {@link #accumulatedExp}, which is sorted even if a level requires negative exp,
+     * so a level is only reached once all levels before it are finished.
+     */
+    private final int[] thresholds;
+
+    public LevelThresholds(List<Integer> requiredExpPerLevel) {
+        this.accumulatedExp = new int[requiredExpPerLevel.size()];
+        this.thresholds = new int[requiredExpPerLevel.size()];
+
+        int accumulated = 0;
+        int threshold = Integer.MIN_VALUE;
+        for (int i = 0; i < accumulatedExp.length; i++) {
+            accumulated += requiredExpPerLevel.get(i);
+            threshold = Math.max(threshold, accumulated);
+            accumulatedExp[i] = accumulated;
+            thresholds[i] = threshold;
+        }
+    }
+
+    /**
+     * @param exp     the collected exp
+     *
+     * @return the number of finished levels, which is the first level whose threshold is greater than the exp
+     */
+    public int levelForExp(int exp) {
+        // the first index with a threshold greater than exp, also for duplicate thresholds
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= exp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param exp     the collected exp
+     *
+     * @return the exp collected since the last finished level
+     */
+    public int remainingExpForCurrentLevel(int exp) {
+        int level = levelForExp(exp);
+        return level == 0 ? exp : exp - accumulatedExp[level - 1];
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(accumulatedExp);
+    }
+
+}
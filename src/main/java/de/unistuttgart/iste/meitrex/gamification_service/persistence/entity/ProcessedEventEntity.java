@@ -0,0 +1,30 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * The id of an event received via dapr pub/sub, that was processed. Redeliveries of the event are skipped.
+ */
+@Entity(name = "ProcessedEvent")
+@Table(name = "processed_event", indexes = {
+        @Index(name = "idx_processed_event_processed_at", columnList = "processed_at")
+})
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEventEntity {
+
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private OffsetDateTime processedAt;
+
+}
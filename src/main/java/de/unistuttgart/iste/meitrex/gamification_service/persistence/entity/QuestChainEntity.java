@@ -1,14 +1,14 @@
 package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
 
-import de.unistuttgart.iste.meitrex.gamification_service.service.QuestService;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 @Entity(name = "QuestChain")
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quest_chain_course", columnNames = "courseUUID")
+})
 @Getter
 @Setter
 @ToString
@@ -17,15 +17,40 @@ import java.util.UUID;
 @AllArgsConstructor
 public class QuestChainEntity {
 
+    /**
+     * The distance between the positions of consecutive quests after appending or rebalancing.
+     */
+    public static final int POSITION_GAP = 1024;
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID questChainUUID;
 
+    /**
+     * The quests in the order, in which the users have to finish them, which is the order of their positions.
+     * The positions leave gaps, so inserting or moving a quest only writes the quest itself.
+     */
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("chainPosition ASC")
     private List<QuestEntity> quests;
 
+    /**
+     * Every course has exactly one quest chain, which is addressed by the id of the course.
+     */
     private UUID courseUUID;
 
+    /**
+     * Cached positions of the quests by the id of their quiz or flashCardSet, rebuilt lazily after the quests changed.
+     */
+    @Transient
+    @ToString.Exclude
+    private Map<UUID, Integer> questPositions;
+
+    public void setQuests(List<QuestEntity> quests) {
+        this.quests = quests;
+        this.questPositions = null;
+    }
+
     public int size() {
         if (this.quests == null) {
             return 0;
@@ -33,91 +58,177 @@ public class QuestChainEntity {
         return quests.size();
     }
 
+    /**
+     * @param index     the index of the quest in the chain, which is the level of the users at this quest
+     *
+     * @return the quest at the index
+     */
     public QuestEntity getQuest(int index) {
         return quests.get(index);
     }
 
+    /**
+     * Appends the quest to the end of the chain.
+     *
+     * @param quest     the new quest
+     */
     public void addQuest(QuestEntity quest) {
         if (this.quests == null) {
-            this.quests = new LinkedList<QuestEntity>();
+            this.quests = new ArrayList<QuestEntity>();
         }
+        quest.setChainPosition(this.quests.isEmpty()
+                ? POSITION_GAP
+                : this.quests.get(this.quests.size() - 1).getChainPosition() + POSITION_GAP);
         this.quests.add(quest);
+        if (this.questPositions != null) {
+            this.questPositions.put(contentOf(quest), this.quests.size() - 1);
+        }
     }
 
-    public void changeNameOfQuiz(UUID quizUUID, String newName) {
-        if (this.quests == null) {
+    /**
+     * Checks whether a quest can be moved to another index without moving other quests.
+     *
+     * @param fromIndex     the current index of the quest
+     * @param toIndex       the new index of the quest
+     *
+     * @return whether the positions of the new neighbours of the quest leave a gap
+     */
+    public boolean hasGapForMove(int fromIndex, int toIndex) {
+        // the indices of the new neighbours, while the quest is still at its current index
+        int lowerIndex = toIndex - 1 < fromIndex ? toIndex - 1 : toIndex;
+        int upperIndex = toIndex < fromIndex ? toIndex : toIndex + 1;
+        if (upperIndex >= size()) {
+            return true;
+        }
+        int lower = lowerIndex < 0 ? -1 : this.quests.get(lowerIndex).getChainPosition();
+        return this.quests.get(upperIndex).getChainPosition() - lower >= 2;
+    }
+
+    /**
+     * Inserts the quest at the index, with a position in the middle of the gap between its neighbours.
+     * The gap has to be checked with {@link #hasGapForMove(int, int)} and restored with {@link #rebalance()} first.
+     *
+     * @param quest     the inserted quest
+     * @param index     the index of the inserted quest, between 0 and the size of the chain
+     */
+    public void insertQuest(QuestEntity quest, int index) {
+        if (index >= size()) {
+            addQuest(quest);
             return;
         }
-        for (QuestEntity quest : this.quests) {
-            if (quizUUID.equals(quest.getQuizUUID())) {
-                quest.setDescription(QuestService.descriptionPart1 + "quiz " + newName +
-                        QuestService.descriptionPart2 + QuestService.passingPercentage + QuestService.descriptionPart3);
-                break;
+        int lower = index == 0 ? -1 : this.quests.get(index - 1).getChainPosition();
+        int upper = this.quests.get(index).getChainPosition();
+        quest.setChainPosition(lower + (upper - lower) / 2);
+        this.quests.add(index, quest);
+        this.questPositions = null;
+    }
+
+    /**
+     * Renumbers the quests {@link #POSITION_GAP} apart without changing their order.
+     */
+    public void rebalance() {
+        for (int i = 0; i < size(); i++) {
+            this.quests.get(i).setChainPosition((i + 1) * POSITION_GAP);
+        }
+    }
+
+    /**
+     * @param progressPosition     the progress position of a user
+     *
+     * @return the level of the user, which is the number of quests before the progress position
+     */
+    public int levelOf(int progressPosition) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.quests.get(middle).getChainPosition() < progressPosition) {
+                low = middle + 1;
+            } else {
+                high = middle;
             }
         }
+        return low;
+    }
+
+    /**
+     * @param userQuestChain     the progress of a user at this chain
+     *
+     * @return the level of the user, which is the number of quests the user finished
+     */
+    public int levelOf(UserQuestChainEntity userQuestChain) {
+        return levelOf(userQuestChain.getProgressPosition());
+    }
+
+    /**
+     * @param level     a level of the chain
+     *
+     * @return the progress position of a user, who finished the quests before the level
+     */
+    public int progressPositionOfLevel(int level) {
+        return level == 0 ? 0 : this.quests.get(level - 1).getChainPosition() + 1;
     }
 
-    public void changeNameOfFlashCardSet(UUID flashCardSetUUID, String newName) {
+    /**
+     * @param contentUUID     the id of a quiz or flashCardSet
+     *
+     * @return the index of the quest of the content, -1 if the chain has no quest for it
+     */
+    public int findIndexOfContentQuest(UUID contentUUID) {
         if (this.quests == null) {
-            return;
+            return -1;
         }
-        for (QuestEntity quest : this.quests) {
-            if (flashCardSetUUID.equals(quest.getFlashCardSetUUID())) {
-                quest.setDescription(QuestService.descriptionPart1 + "flashCardSet " + newName +
-                        QuestService.descriptionPart2 + QuestService.passingPercentage + QuestService.descriptionPart3);
-                break;
+        if (this.questPositions == null) {
+            Map<UUID, Integer> positions = new HashMap<>();
+            for (int i = 0; i < this.quests.size(); i++) {
+                positions.put(contentOf(this.quests.get(i)), i);
             }
+            this.questPositions = positions;
         }
+        return this.questPositions.getOrDefault(contentUUID, -1);
     }
 
     public int findIndexOfQuizQuest(UUID quizUUID) {
-        if (this.quests != null) {
-            int i = 0;
-            for (QuestEntity quest : this.quests) {
-                if (quizUUID.equals(quest.getQuizUUID())) {
-                    return i;
-                }
-                i++;
-            }
-        }
-        return -1;
+        int index = findIndexOfContentQuest(quizUUID);
+        return index >= 0 && quizUUID.equals(this.quests.get(index).getQuizUUID()) ? index : -1;
     }
 
     public int findIndexOfFlashCardSetQuest(UUID flashCardSetUUID) {
-        if (this.quests != null) {
-            int i = 0;
-            for (QuestEntity quest : this.quests) {
-                if (flashCardSetUUID.equals(quest.getFlashCardSetUUID())) {
-                    return i;
-                }
-                i++;
-            }
-        }
-        return -1;
+        int index = findIndexOfContentQuest(flashCardSetUUID);
+        return index >= 0 && flashCardSetUUID.equals(this.quests.get(index).getFlashCardSetUUID()) ? index : -1;
     }
 
     public int removeQuestOfQuiz(UUID quizUUID) {
-        if (this.quests != null) {
-            int indexOfQuizQuest = this.findIndexOfQuizQuest(quizUUID);
-            if (0 <= indexOfQuizQuest && indexOfQuizQuest < this.quests.size()) {
-                this.quests.remove(indexOfQuizQuest);
-            }
-            return indexOfQuizQuest;
-        }
-        return -1;
+        int index = findIndexOfQuizQuest(quizUUID);
+        removeQuest(index);
+        return index;
     }
 
     public int removeQuestOfFCS(UUID flashCardSetUUID) {
-        if (this.quests != null) {
-            int indexOfFCSQuest = this.findIndexOfFlashCardSetQuest(flashCardSetUUID);
-            if (0 <= indexOfFCSQuest && indexOfFCSQuest < this.quests.size()) {
-                this.quests.remove(indexOfFCSQuest);
-            }
-            return indexOfFCSQuest;
-        }
-        return -1;
+        int index = findIndexOfFlashCardSetQuest(flashCardSetUUID);
+        removeQuest(index);
+        return index;
     }
 
+    /**
+     * Removes the quest at the index. The positions of the other quests stay the same.
+     *
+     * @param index     the index of the quest
+     *
+     * @return the removed quest, null if the index is -1
+     */
+    public QuestEntity removeQuest(int index) {
+        if (index < 0) {
+            return null;
+        }
+        QuestEntity quest = this.quests.remove(index);
+        // the quests behind the removed one moved forward
+        this.questPositions = null;
+        return quest;
+    }
 
+    private static UUID contentOf(QuestEntity quest) {
+        return quest.getQuizUUID() != null ? quest.getQuizUUID() : quest.getFlashCardSetUUID();
+    }
 
 }
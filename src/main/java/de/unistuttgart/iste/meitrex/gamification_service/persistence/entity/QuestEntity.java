@@ -2,6 +2,7 @@ package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.UUID;
 
@@ -25,6 +26,12 @@ public class QuestEntity {
 
     private UUID flashCardSetUUID;
 
-    private String description;
+    /**
+     * The sparse position of the quest in its chain. The quests of a chain are ordered by their positions, which
+     * leave gaps, so a quest is inserted or moved between two others without renumbering the chain. The positions
+     * are only written while the chain is locked, so no two quests of a chain get the same position.
+     */
+    @ColumnDefault("0")
+    private int chainPosition;
 
 }
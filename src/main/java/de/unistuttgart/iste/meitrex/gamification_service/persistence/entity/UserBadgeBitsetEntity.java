@@ -0,0 +1,71 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * The achieved badges of a user at a course, packed into one bitset. Every content of the course has a stable
+ * ordinal and occupies three consecutive bits, one per tier of its badges.
+ */
+@Entity(name = "UserBadgeBitset")
+@Table(name = "user_badge_bitset")
+@IdClass(UserBadgeBitsetEntity.PrimaryKey.class)
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBadgeBitsetEntity {
+
+    @Id
+    @Column(name = "course_uuid", nullable = false)
+    private UUID courseUUID;
+
+    @Id
+    @Column(name = "user_uuid", nullable = false)
+    private UUID userUUID;
+
+    @Column(name = "achieved", nullable = false)
+    private byte[] achieved;
+
+    /**
+     * @return the decoded bits of the achieved badges
+     */
+    public BitSet getAchievedBits() {
+        return this.achieved == null ? new BitSet() : BitSet.valueOf(this.achieved);
+    }
+
+    /**
+     * Sets the bit of an achieved badge.
+     *
+     * @param bit   the bit of the badge
+     *
+     * @return whether the badge was not achieved before
+     */
+    public boolean achieve(int bit) {
+        BitSet bits = getAchievedBits();
+        if (bits.get(bit)) {
+            return false;
+        }
+        bits.set(bit);
+        this.achieved = bits.toByteArray();
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PrimaryKey implements Serializable {
+
+        private UUID courseUUID;
+
+        private UUID userUUID;
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Marks, that the userBadges achieved in another storage were stored in the bitsets. The mark is removed, when the
+ * application starts with another storage, because the userBadges achieved from then on are not in the bitsets.
+ */
+@Entity(name = "UserBadgeBitsetMigration")
+@Table(name = "user_badge_bitset_migration")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBadgeBitsetMigrationEntity {
+
+    @Id
+    @Column(name = "migration", nullable = false)
+    private String migration;
+
+    @Column(name = "migrated_at", nullable = false)
+    private OffsetDateTime migratedAt;
+
+}
@@ -6,6 +6,11 @@ import lombok.*;
 import java.util.UUID;
 
 @Entity(name = "UserBadge")
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_badge_user_badge", columnNames = {"useruuid", "badgeuuid"})
+}, indexes = {
+        @Index(name = "idx_user_badge_badge", columnList = "badgeuuid")
+})
 @Getter
 @Setter
 @ToString
@@ -2,11 +2,14 @@ package de.unistuttgart.iste.meitrex.gamification_service.persistence.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.LinkedList;
 import java.util.UUID;
 
 @Entity(name = "UserQuestChain")
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_quest_chain_course_user", columnNames = {"courseUUID", "userUUID"})
+})
 @Getter
 @Setter
 @ToString
@@ -21,19 +24,28 @@ public class UserQuestChainEntity {
 
     private UUID questChainUUID;
 
-    private UUID userUUID;
-
-    private int userLevel;
+    /**
+     * The course of the quest chain, so the userQuestChain of a user is found without looking up the quest chain.
+     */
+    private UUID courseUUID;
 
-    public void finishQuest() {
-        userLevel++;
-    }
+    private UUID userUUID;
 
-    public void decreaseUserLevel() {
-        if (userLevel <= 0) {
-            return;
-        }
-        userLevel--;
+    /**
+     * The progress of the user, expressed against the positions of the quests: every quest with a lower position
+     * is finished, the first quest at or after it is the current quest. Inserting or moving quests does not change
+     * the progress of the users.
+     */
+    @ColumnDefault("0")
+    private int progressPosition;
+
+    /**
+     * Finishes the quest at the position and moves the progress of the user behind it.
+     *
+     * @param questPosition     the position of the finished quest
+     */
+    public void finishQuest(int questPosition) {
+        progressPosition = Math.max(progressPosition, questPosition + 1);
     }
 
 }
@@ -1,6 +1,5 @@
 package de.unistuttgart.iste.meitrex.gamification_service.persistence.mapper;
 
-import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BadgeEntity;
 import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeEntity;
 import lombok.RequiredArgsConstructor;
@@ -11,16 +10,32 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class BadgeMapper {
 
-    public UserBadge userBadgeEntityToDto(UserBadgeEntity userBadgeEntity, BadgeEntity badgeEntity) {
+    public static final String descriptionPart1 = "At least ";
+    public static final String descriptionPart2 = "% of your answers for the ";
+    public static final String descriptionPart3 = " are correct.";
+
+    /**
+     * Renders the description of a badge from the name of its quiz or flashCardSet, so the name is only saved once.
+     *
+     * @param passingPercentage    the required percentage to get the badge
+     * @param quiz                 whether the badge belongs to a quiz or to a flashCardSet
+     * @param contentName          the name of the quiz or flashCardSet, null if the name is unknown
+     *
+     * @return the description of the badge
+     */
+    public static String renderDescription(int passingPercentage, boolean quiz, String contentName) {
+        return descriptionPart1 + passingPercentage + descriptionPart2 + (quiz ? "quiz" : "flashCardSet")
+                + (contentName == null ? "" : " " + contentName) + descriptionPart3;
+    }
+
+    public UserBadge userBadgeEntityToDto(UserBadgeEntity userBadgeEntity, int passingPercentage) {
         UserBadge userBadge = new UserBadge();
         userBadge.setUserBadgeUUID(userBadgeEntity.getUserBadgeUUID());
         userBadge.setUserUUID(userBadgeEntity.getUserUUID());
         userBadge.setBadgeUUID(userBadgeEntity.getBadgeUUID());
         userBadge.setAchieved(userBadgeEntity.isAchieved());
-
-        userBadge.setDescription(badgeEntity.getDescription());
-        userBadge.setPassingPercentage(badgeEntity.getPassingPercentage());
+        userBadge.setPassingPercentage(passingPercentage);
         return userBadge;
     }
 
-}
\ No newline at end of file
+}
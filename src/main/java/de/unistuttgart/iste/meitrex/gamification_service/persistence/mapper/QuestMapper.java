@@ -8,45 +8,73 @@ import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class QuestMapper {
 
-    public Quest questEntityToDto(QuestEntity questEntity) {
+    public static final String descriptionPart1 = "Finish ";
+    public static final String descriptionPart2 = " with at least ";
+    public static final String descriptionPart3 = "% correct answers to unlock the next quest!";
+
+    /**
+     * Renders the description of a quest from the name of its quiz or flashCardSet, so the name is only saved once.
+     *
+     * @param quiz                 whether the quest belongs to a quiz or to a flashCardSet
+     * @param contentName          the name of the quiz or flashCardSet, null if the name is unknown
+     * @param passingPercentage    the required percentage to finish the quest
+     *
+     * @return the description of the quest
+     */
+    public static String renderDescription(boolean quiz, String contentName, int passingPercentage) {
+        return descriptionPart1 + (quiz ? "quiz" : "flashCardSet") + (contentName == null ? "" : " " + contentName)
+                + descriptionPart2 + passingPercentage + descriptionPart3;
+    }
+
+    public Quest questEntityToDto(QuestEntity questEntity, String contentName, int passingPercentage) {
         Quest quest = new Quest();
         quest.setQuestUUID(questEntity.getQuestUUID());
-        quest.setDescription(questEntity.getDescription());
+        quest.setDescription(renderDescription(questEntity.getQuizUUID() != null, contentName, passingPercentage));
         quest.setQuizUUID(questEntity.getQuizUUID());
         quest.setFlashCardSetUUID(questEntity.getFlashCardSetUUID());
         return quest;
     }
 
-    public UserQuestChain userQuestChainEntityToDto(UserQuestChainEntity userQuestChainEntity, List<QuestEntity> quests) {
+    public UserQuestChain userQuestChainEntityToDto(UserQuestChainEntity userQuestChainEntity, int userLevel,
+                                                    int questCount) {
 
         UserQuestChain userQuestChain = new UserQuestChain();
 
         userQuestChain.setUserQuestChainUUID(userQuestChainEntity.getUserQuestChainUUID());
         userQuestChain.setQuestChainUUID(userQuestChainEntity.getQuestChainUUID());
         userQuestChain.setUserUUID(userQuestChainEntity.getUserUUID());
-        int userLevel = userQuestChainEntity.getUserLevel();
         userQuestChain.setUserLevel(userLevel);
-        userQuestChain.setFinished(userLevel >= quests.size());
+        userQuestChain.setFinished(userLevel >= questCount);
+
+        return userQuestChain;
 
-        List<Quest> userQuests = new LinkedList<Quest>();
+    }
+
+    public List<Quest> userQuestsToDto(List<QuestEntity> quests, int userLevel, Map<UUID, String> contentNames,
+                                       int passingPercentage) {
+
+        List<Quest> userQuests = new ArrayList<Quest>(quests.size());
         int i = 0;
         for (QuestEntity userQuestEntity : quests) {
-            Quest quest = questEntityToDto(userQuestEntity);
+            UUID contentUUID = userQuestEntity.getQuizUUID() != null
+                    ? userQuestEntity.getQuizUUID()
+                    : userQuestEntity.getFlashCardSetUUID();
+            Quest quest = questEntityToDto(userQuestEntity, contentNames.get(contentUUID), passingPercentage);
             quest.setFinished(i < userLevel);
             userQuests.add(quest);
             quest.setLevel(i);
             i++;
         }
-        userQuestChain.setQuests(userQuests);
-
-        return userQuestChain;
+        return userQuests;
 
     }
 
@@ -2,8 +2,12 @@ package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository
 
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BadgeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,8 +15,39 @@ import java.util.UUID;
 @Repository
 public interface BadgeRepository extends JpaRepository<BadgeEntity, UUID> {
 
+    /**
+     * A badge together with the name of its quiz or flashCardSet, from which its description is rendered.
+     */
+    interface BadgeDescriptionView {
+
+        UUID getBadgeUUID();
+
+        UUID getQuizUUID();
+
+        int getPassingPercentage();
+
+        String getContentName();
+
+    }
+
     List<BadgeEntity> findByQuizUUID(UUID quizUUID);
     List<BadgeEntity> findByFlashCardSetUUID(UUID flashCardSetUUID);
     List<BadgeEntity> findByCourseUUID(UUID courseUUID);
+    long countByContentOrdinalIsNull();
+
+    @Query("select b.badgeUUID as badgeUUID, b.quizUUID as quizUUID, b.passingPercentage as passingPercentage, " +
+            "m.name as contentName " +
+            "from Badge b " +
+            "left join ContentMetaData m on m.contentUUID = b.quizUUID or m.contentUUID = b.flashCardSetUUID " +
+            "where b.badgeUUID in :badgeUUIDs")
+    List<BadgeDescriptionView> findBadgeDescriptions(@Param("badgeUUIDs") Collection<UUID> badgeUUIDs);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Badge b where b.courseUUID = :courseUUID")
+    int deleteAllOfCourse(@Param("courseUUID") UUID courseUUID);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Badge b where b.quizUUID = :contentUUID or b.flashCardSetUUID = :contentUUID")
+    int deleteAllOfContent(@Param("contentUUID") UUID contentUUID);
 
 }
@@ -1,18 +1,32 @@
 package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
 
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BloomLevelEntity;
-import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BloomLevelRepository extends JpaRepository<BloomLevelEntity, UUID> {
+public interface BloomLevelRepository extends JpaRepository<BloomLevelEntity, UUID>, BloomLevelRepositoryCustom {
 
     BloomLevelEntity findByUserUUIDAndCourseUUID(UUID userUUID, UUID courseUUID);
     void deleteByUserUUIDAndCourseUUID(UUID userUUID, UUID courseUUID);
 
+    /**
+     * Creates the bloomLevel of the user at the course without exp, if the user has none yet.
+     *
+     * @return 1 if the bloomLevel was created, 0 if the user already had one
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into bloom_level (bloom_leveluuid, useruuid, courseuuid, collected_exp) " +
+            "values (gen_random_uuid(), :userUUID, :courseUUID, 0) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("userUUID") UUID userUUID, @Param("courseUUID") UUID courseUUID);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from BloomLevel b where b.courseUUID = :courseUUID")
+    int deleteAllOfCourse(@Param("courseUUID") UUID courseUUID);
+
 }
@@ -0,0 +1,47 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Writes to the bloomLevels, that need statements Spring Data cannot derive.
+ */
+public interface BloomLevelRepositoryCustom {
+
+    /**
+     * Exp gained by a user at a course.
+     *
+     * @param userUUID       the id of the user
+     * @param courseUUID     the id of the course
+     * @param exp            the gained exp
+     */
+    record ExpGain(UUID userUUID, UUID courseUUID, int exp) {
+    }
+
+    /**
+     * Atomically adds exp to the bloomLevel of the user at the course with a single statement. If the user has
+     * no bloomLevel at the course yet, it is created with the exp. Only members of the course collect exp, so
+     * exp written after the user left the course is dropped. Concurrent increments for the same user and course
+     * are serialized by the row lock of the statement.
+     *
+     * @param userUUID       the id of the user
+     * @param courseUUID     the id of the course
+     * @param exp            the exp to add
+     *
+     * @return the new total of collected exp, empty if the user is not a member of the course
+     */
+    Optional<Integer> addCollectedExp(UUID userUUID, UUID courseUUID, int exp);
+
+    /**
+     * Adds the exp gains to the bloomLevels like {@link #addCollectedExp(UUID, UUID, int)}, but with one multi-row
+     * statement for every chunk of {@code gamification.bloom-level.bulk-update-size} gains. There must be at most
+     * one gain per user and course.
+     *
+     * @param expGains     the exp gains
+     *
+     * @return the number of written bloomLevels, gains of users, who are not members of the course, are dropped
+     */
+    int addCollectedExp(Collection<ExpGain> expGains);
+
+}
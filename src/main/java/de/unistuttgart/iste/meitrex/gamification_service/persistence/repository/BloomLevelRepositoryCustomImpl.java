@@ -0,0 +1,83 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+
+/**
+ * Implements the {@link BloomLevelRepositoryCustom} writes with native PostgreSQL statements.
+ */
+public class BloomLevelRepositoryCustomImpl implements BloomLevelRepositoryCustom {
+
+    private static final String ADD_COLLECTED_EXP =
+            "insert into bloom_level (bloom_leveluuid, useruuid, courseuuid, collected_exp) " +
+            "select gen_random_uuid(), g.user_uuid, g.course_uuid, g.exp " +
+            "from unnest(?, ?, ?) as g(user_uuid, course_uuid, exp) " +
+            "where exists (select 1 from course_membership m " +
+            "where m.course_uuid = g.course_uuid and m.user_uuid = g.user_uuid) " +
+            "on conflict (useruuid, courseuuid) " +
+            "do update set collected_exp = bloom_level.collected_exp + excluded.collected_exp";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${gamification.bloom-level.bulk-update-size:500}")
+    private int chunkSize;
+
+    @Override
+    public Optional<Integer> addCollectedExp(UUID userUUID, UUID courseUUID, int exp) {
+
+        entityManager.flush();
+        List<?> collectedExp = entityManager.createNativeQuery(
+                "insert into bloom_level (bloom_leveluuid, useruuid, courseuuid, collected_exp) " +
+                        "select gen_random_uuid(), :userUUID, :courseUUID, :exp " +
+                        "where exists (select 1 from course_membership m " +
+                        "where m.course_uuid = :courseUUID and m.user_uuid = :userUUID) " +
+                        "on conflict (useruuid, courseuuid) " +
+                        "do update set collected_exp = bloom_level.collected_exp + excluded.collected_exp " +
+                        "returning collected_exp")
+                .setParameter("userUUID", userUUID)
+                .setParameter("courseUUID", courseUUID)
+                .setParameter("exp", exp)
+                .getResultList();
+        // loaded bloomLevels would be stale after the statement
+        entityManager.clear();
+        return collectedExp.stream().map(total -> ((Number) total).intValue()).findFirst();
+
+    }
+
+    @Override
+    public int addCollectedExp(Collection<ExpGain> expGains) {
+
+        if (expGains.isEmpty()) {
+            return 0;
+        }
+        List<ExpGain> gains = new ArrayList<>(expGains);
+        entityManager.flush();
+        int written = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            int rows = 0;
+            try (PreparedStatement statement = connection.prepareStatement(ADD_COLLECTED_EXP)) {
+                for (int from = 0; from < gains.size(); from += chunkSize) {
+                    List<ExpGain> chunk = gains.subList(from, Math.min(from + chunkSize, gains.size()));
+                    statement.setArray(1, connection.createArrayOf("uuid",
+                            chunk.stream().map(ExpGain::userUUID).toArray()));
+                    statement.setArray(2, connection.createArrayOf("uuid",
+                            chunk.stream().map(ExpGain::courseUUID).toArray()));
+                    statement.setArray(3, connection.createArrayOf("integer",
+                            chunk.stream().map(ExpGain::exp).toArray()));
+                    rows += statement.executeUpdate();
+                }
+            }
+            return rows;
+        });
+        // loaded bloomLevels would be stale after the statement
+        entityManager.clear();
+        return written;
+
+    }
+
+}
@@ -1,16 +1,53 @@
 package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
 
-import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BloomLevelEntity;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.ContentMetaDataEntity;
-import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ContentMetaDataRepository extends JpaRepository<ContentMetaDataEntity, UUID> {
 
+    /**
+     * The name of a quiz or flashCardSet.
+     */
+    interface ContentNameView {
+
+        UUID getContentUUID();
+
+        String getName();
+
+    }
+
+    List<ContentMetaDataEntity> findByCourseUUID(UUID courseUUID);
+
+    @Query("select m.contentUUID as contentUUID, m.name as name from ContentMetaData m where m.courseUUID in :courseUUIDs")
+    List<ContentNameView> findContentNamesByCourseUUIDIn(@Param("courseUUIDs") Collection<UUID> courseUUIDs);
+
+    /**
+     * @param courseUUIDs     the ids of the courses
+     *
+     * @return the names of all quizzes and flashCardSets of the courses by their id
+     */
+    default Map<UUID, String> findContentNameMapByCourseUUIDIn(Collection<UUID> courseUUIDs) {
+        Map<UUID, String> contentNames = new HashMap<>();
+        for (ContentNameView contentName : findContentNamesByCourseUUIDIn(courseUUIDs)) {
+            contentNames.put(contentName.getContentUUID(), contentName.getName());
+        }
+        return contentNames;
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ContentMetaData m where m.courseUUID = :courseUUID")
+    int deleteAllOfCourse(@Param("courseUUID") UUID courseUUID);
+
 }
@@ -0,0 +1,46 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.CourseMembershipEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface CourseMembershipRepository
+        extends JpaRepository<CourseMembershipEntity, CourseMembershipEntity.PrimaryKey> {
+
+    boolean existsByCourseUUIDAndUserUUID(UUID courseUUID, UUID userUUID);
+    long countByCourseUUID(UUID courseUUID);
+
+    @Query("select m.userUUID from CourseMembership m where m.courseUUID = :courseUUID")
+    Set<UUID> findUserUUIDsByCourseUUID(@Param("courseUUID") UUID courseUUID);
+
+    @Query("select m.userUUID from CourseMembership m where m.courseUUID = :courseUUID and m.userUUID in :userUUIDs")
+    Set<UUID> findUserUUIDsByCourseUUIDAndUserUUIDIn(@Param("courseUUID") UUID courseUUID,
+                                                      @Param("userUUIDs") Collection<UUID> userUUIDs);
+
+    /**
+     * Adds the user to the course, if the user is not a member yet.
+     *
+     * @return 1 if the user was added, 0 if the user already was a member
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into course_membership (course_uuid, user_uuid) values (:courseUUID, :userUUID) " +
+            "on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("courseUUID") UUID courseUUID, @Param("userUUID") UUID userUUID);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CourseMembership m where m.courseUUID = :courseUUID and m.userUUID = :userUUID")
+    int deleteByCourseUUIDAndUserUUID(@Param("courseUUID") UUID courseUUID, @Param("userUUID") UUID userUUID);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CourseMembership m where m.courseUUID = :courseUUID")
+    int deleteByCourseUUID(@Param("courseUUID") UUID courseUUID);
+
+}
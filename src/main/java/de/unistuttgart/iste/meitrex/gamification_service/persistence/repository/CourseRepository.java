@@ -1,14 +1,24 @@
 package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
 
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.CourseEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CourseRepository extends JpaRepository<CourseEntity, UUID> {
 
-
+    /**
+     * Loads the course and locks its row until the end of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Course c where c.courseUUID = :courseUUID")
+    Optional<CourseEntity> findByIdForUpdate(@Param("courseUUID") UUID courseUUID);
 
 }
@@ -0,0 +1,29 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.ProcessedEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEventEntity, String> {
+
+    /**
+     * Marks the event as processed, if it was not processed before.
+     *
+     * @return 1 if the event is processed for the first time, 0 if it was processed before
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into processed_event (event_id, processed_at) values (:eventId, now()) " +
+            "on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId);
+
+    @Modifying
+    @Query("delete from ProcessedEvent e where e.processedAt < :processedBefore")
+    int deleteProcessedBefore(@Param("processedBefore") OffsetDateTime processedBefore);
+
+}
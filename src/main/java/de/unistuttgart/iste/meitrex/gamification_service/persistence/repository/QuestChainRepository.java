@@ -1,15 +1,78 @@
 package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
 
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.QuestChainEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface QuestChainRepository extends JpaRepository<QuestChainEntity, UUID> {
 
+    /**
+     * The position of the quest of a quiz or flashCardSet in the quest chain of its course, together with the
+     * position of the quest before it, which is -1 for the first quest.
+     */
+    interface QuestPositionView {
+
+        UUID getQuizUUID();
+
+        UUID getFlashCardSetUUID();
+
+        int getPosition();
+
+        int getPreviousPosition();
+
+    }
+
     QuestChainEntity findByCourseUUID(UUID courseUUID);
 
+    /**
+     * Loads the quest chain of the course and locks its row until the end of the transaction. Every change of the
+     * positions of its quests and every progress of its users takes this lock first, so they do not interleave.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select qc from QuestChain qc where qc.courseUUID = :courseUUID")
+    Optional<QuestChainEntity> findByCourseUUIDForUpdate(@Param("courseUUID") UUID courseUUID);
+
+    @Query("select qc.questChainUUID from QuestChain qc where qc.courseUUID = :courseUUID")
+    Optional<UUID> findQuestChainUUIDByCourseUUID(@Param("courseUUID") UUID courseUUID);
+
+    /**
+     * Counts the quests of the quest chain of the course without loading them.
+     */
+    @Query("select size(qc.quests) from QuestChain qc where qc.courseUUID = :courseUUID")
+    Optional<Integer> countQuestsByCourseUUID(@Param("courseUUID") UUID courseUUID);
+
+    /**
+     * Counts the quests of the quest chain of the course, which are before the position.
+     */
+    @Query("select count(q) from QuestChain qc join qc.quests q " +
+            "where qc.courseUUID = :courseUUID and q.chainPosition < :position")
+    long countQuestsBefore(@Param("courseUUID") UUID courseUUID, @Param("position") int position);
+
+    /**
+     * Retrieves the positions of the quests of the content in the quest chain of the course, without loading the
+     * other quests of the chain.
+     */
+    @Query("select q.quizUUID as quizUUID, " +
+            "q.flashCardSetUUID as flashCardSetUUID, q.chainPosition as position, " +
+            "(select coalesce(max(q2.chainPosition), -1) from QuestChain qc2 join qc2.quests q2 " +
+            "where qc2.courseUUID = :courseUUID and q2.chainPosition < q.chainPosition) as previousPosition " +
+            "from QuestChain qc join qc.quests q " +
+            "where qc.courseUUID = :courseUUID " +
+            "and (q.quizUUID in :contentUUIDs or q.flashCardSetUUID in :contentUUIDs)")
+    List<QuestPositionView> findQuestPositions(@Param("courseUUID") UUID courseUUID,
+                                               @Param("contentUUIDs") Collection<UUID> contentUUIDs);
+
+    @Query("select distinct qc from QuestChain qc left join fetch qc.quests where qc.questChainUUID in :questChainUUIDs")
+    List<QuestChainEntity> findWithQuestsByQuestChainUUIDIn(@Param("questChainUUIDs") Collection<UUID> questChainUUIDs);
+
 }
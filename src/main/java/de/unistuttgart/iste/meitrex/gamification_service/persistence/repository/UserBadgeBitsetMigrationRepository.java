@@ -0,0 +1,20 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeBitsetMigrationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserBadgeBitsetMigrationRepository extends JpaRepository<UserBadgeBitsetMigrationEntity, String> {
+
+    /**
+     * Takes the advisory lock of the migration until the end of the transaction, so instances starting together
+     * migrate one after another.
+     *
+     * @return always 1
+     */
+    @Query(value = "select 1 from pg_advisory_xact_lock(hashtext('user_badge_bitset_migration'))", nativeQuery = true)
+    int lockMigration();
+
+}
@@ -0,0 +1,92 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeBitsetEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserBadgeBitsetRepository
+        extends JpaRepository<UserBadgeBitsetEntity, UserBadgeBitsetEntity.PrimaryKey> {
+
+    Optional<UserBadgeBitsetEntity> findByCourseUUIDAndUserUUID(UUID courseUUID, UUID userUUID);
+
+    /**
+     * Loads the bitsets of the users at the course and locks their rows until the end of the transaction,
+     * so concurrent completions do not overwrite each other's bits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from UserBadgeBitset b where b.courseUUID = :courseUUID and b.userUUID in :userUUIDs")
+    List<UserBadgeBitsetEntity> findForUpdate(@Param("courseUUID") UUID courseUUID,
+                                              @Param("userUUIDs") Collection<UUID> userUUIDs);
+
+    /**
+     * Creates an empty bitset for the user at the course, if the user has none yet.
+     *
+     * @return 1 if the bitset was created, 0 if it already existed
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into user_badge_bitset (course_uuid, user_uuid, achieved) " +
+            "values (:courseUUID, :userUUID, decode('', 'hex')) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("courseUUID") UUID courseUUID, @Param("userUUID") UUID userUUID);
+
+    /**
+     * Sets the bits of all achieved userBadges in the bitsets of their users at the courses of their badges with one
+     * statement. The bits are grouped per user and course and combined with the bits already set, missing bitsets are
+     * created. The bitsets are encoded like {@link java.util.BitSet#toByteArray()}, so bit i is bit i % 8 of byte
+     * i / 8. Badges without content ordinal or tier have no bit and are skipped.
+     *
+     * @param bronze      the passing percentage of the first tier
+     * @param silver      the passing percentage of the second tier
+     * @param gold        the passing percentage of the third tier
+     *
+     * @return the number of bitsets, that changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "with bits as (" +
+            "select b.courseuuid as course_uuid, ub.useruuid as user_uuid, b.content_ordinal * 3 + " +
+            "(case b.passing_percentage when :bronze then 0 when :silver then 1 else 2 end) as bit " +
+            "from user_badge ub join badge b on b.badgeuuid = ub.badgeuuid " +
+            "where ub.achieved and b.content_ordinal is not null " +
+            "and b.passing_percentage in (:bronze, :silver, :gold)), " +
+            "bytes as (" +
+            "select course_uuid, user_uuid, byte_index, bit_or(byte_value) as byte_value from (" +
+            "select course_uuid, user_uuid, bit / 8 as byte_index, 1 << (bit % 8) as byte_value from bits " +
+            "union all " +
+            "select s.course_uuid, s.user_uuid, i, get_byte(s.achieved, i) from user_badge_bitset s " +
+            "join (select distinct course_uuid, user_uuid from bits) u " +
+            "on u.course_uuid = s.course_uuid and u.user_uuid = s.user_uuid " +
+            "cross join generate_series(0, length(s.achieved) - 1) as i) as all_bytes " +
+            "group by course_uuid, user_uuid, byte_index) " +
+            "insert into user_badge_bitset (course_uuid, user_uuid, achieved) " +
+            "select m.course_uuid, m.user_uuid, " +
+            "decode(string_agg(lpad(to_hex(coalesce(v.byte_value, 0)), 2, '0'), '' order by i), 'hex') " +
+            "from (select course_uuid, user_uuid, max(byte_index) as max_index from bytes " +
+            "group by course_uuid, user_uuid) as m " +
+            "cross join generate_series(0, m.max_index) as i " +
+            "left join bytes v on v.course_uuid = m.course_uuid and v.user_uuid = m.user_uuid and v.byte_index = i " +
+            "group by m.course_uuid, m.user_uuid " +
+            "on conflict (course_uuid, user_uuid) do update set achieved = excluded.achieved " +
+            "where user_badge_bitset.achieved <> excluded.achieved", nativeQuery = true)
+    int mergeAchievedUserBadges(@Param("bronze") int bronze,
+                                @Param("silver") int silver,
+                                @Param("gold") int gold);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from UserBadgeBitset b where b.courseUUID = :courseUUID and b.userUUID = :userUUID")
+    int deleteByCourseUUIDAndUserUUID(@Param("courseUUID") UUID courseUUID, @Param("userUUID") UUID userUUID);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from UserBadgeBitset b where b.courseUUID = :courseUUID")
+    int deleteByCourseUUID(@Param("courseUUID") UUID courseUUID);
+
+}
@@ -0,0 +1,136 @@
+package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.*;
+
+/**
+ * Writes many userBadges at once. For every chunk of {@code gamification.badges.bulk-insert-size} users, one
+ * multi-row insert creates the not achieved userBadges of the chunk for all badges. The ids are random UUIDs
+ * generated here, like Hibernate generates them for saved entities, and bound as arrays together with the users and
+ * badges. UserBadges, that already exist, are skipped, so a user joining while a badge is created does not get the
+ * userBadge twice. No entities are created, so the persistence context does not grow with the course size.
+ */
+@Repository
+public class UserBadgeBulkWriter {
+
+    /**
+     * Identifies the userBadge of a user for a badge.
+     *
+     * @param userUUID      the id of the user
+     * @param badgeUUID     the id of the badge
+     */
+    public record UserBadgeKey(UUID userUUID, UUID badgeUUID) {
+    }
+
+    private static final String INSERT_UNACHIEVED =
+            "insert into user_badge (user_badgeuuid, useruuid, badgeuuid, achieved) " +
+            "select t.id, t.user_uuid, t.badge_uuid, false " +
+            "from unnest(?, ?, ?) as t(id, user_uuid, badge_uuid) " +
+            "on conflict (useruuid, badgeuuid) do nothing";
+
+    private static final String ACHIEVE =
+            "insert into user_badge (user_badgeuuid, useruuid, badgeuuid, achieved) " +
+            "select t.id, t.user_uuid, t.badge_uuid, true " +
+            "from unnest(?, ?, ?) as t(id, user_uuid, badge_uuid) " +
+            "on conflict (useruuid, badgeuuid) do update set achieved = true " +
+            "where user_badge.achieved = false " +
+            "returning useruuid, badgeuuid";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${gamification.badges.bulk-insert-size:500}")
+    private int chunkSize;
+
+    /**
+     * Saves a not achieved userBadge for every combination of the users and badges, that has no userBadge yet.
+     *
+     * @param userUUIDs      the ids of the users
+     * @param badgeUUIDs     the ids of the badges
+     *
+     * @return the number of inserted userBadges
+     */
+    public int insertUnachieved(Collection<UUID> userUUIDs, Collection<UUID> badgeUUIDs) {
+
+        if (userUUIDs.isEmpty() || badgeUUIDs.isEmpty()) {
+            return 0;
+        }
+        List<UUID> users = new ArrayList<>(userUUIDs);
+        List<UUID> badges = new ArrayList<>(badgeUUIDs);
+        // the badges may still be pending in the persistence context
+        entityManager.flush();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            int inserted = 0;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_UNACHIEVED)) {
+                for (int from = 0; from < users.size(); from += chunkSize) {
+                    List<UUID> chunk = users.subList(from, Math.min(from + chunkSize, users.size()));
+                    int rows = chunk.size() * badges.size();
+                    UUID[] ids = new UUID[rows];
+                    UUID[] rowUsers = new UUID[rows];
+                    UUID[] rowBadges = new UUID[rows];
+                    int row = 0;
+                    for (UUID user : chunk) {
+                        for (UUID badge : badges) {
+                            ids[row] = UUID.randomUUID();
+                            rowUsers[row] = user;
+                            rowBadges[row] = badge;
+                            row++;
+                        }
+                    }
+                    statement.setArray(1, connection.createArrayOf("uuid", ids));
+                    statement.setArray(2, connection.createArrayOf("uuid", rowUsers));
+                    statement.setArray(3, connection.createArrayOf("uuid", rowBadges));
+                    inserted += statement.executeUpdate();
+                }
+            }
+            return inserted;
+        });
+
+    }
+
+    /**
+     * Marks the userBadges as achieved with one statement. Missing userBadges, like in the sparse storage, are
+     * created as achieved. The database reports the rows it changed, so a userBadge achieved by a concurrent
+     * transaction is not reported a second time.
+     *
+     * @param userBadges     the userBadges to achieve
+     *
+     * @return the userBadges, that were not achieved before
+     */
+    public Set<UserBadgeKey> achieve(Collection<UserBadgeKey> userBadges) {
+
+        if (userBadges.isEmpty()) {
+            return Set.of();
+        }
+        // a userBadge may only be inserted once per statement
+        List<UserBadgeKey> distinctUserBadges = new ArrayList<>(new LinkedHashSet<>(userBadges));
+        entityManager.flush();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Set<UserBadgeKey> achieved = new HashSet<>();
+            try (PreparedStatement statement = connection.prepareStatement(ACHIEVE)) {
+                statement.setArray(1, connection.createArrayOf("uuid",
+                        distinctUserBadges.stream().map(userBadge -> UUID.randomUUID()).toArray()));
+                statement.setArray(2, connection.createArrayOf("uuid",
+                        distinctUserBadges.stream().map(UserBadgeKey::userUUID).toArray()));
+                statement.setArray(3, connection.createArrayOf("uuid",
+                        distinctUserBadges.stream().map(UserBadgeKey::badgeUUID).toArray()));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        achieved.add(new UserBadgeKey(resultSet.getObject(1, UUID.class),
+                                resultSet.getObject(2, UUID.class)));
+                    }
+                }
+            }
+            return achieved;
+        });
+
+    }
+
+}
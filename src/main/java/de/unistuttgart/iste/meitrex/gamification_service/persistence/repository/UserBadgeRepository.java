@@ -1,7 +1,11 @@
 package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository;
 
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,11 +15,100 @@ import java.util.UUID;
 @Repository
 public interface UserBadgeRepository extends JpaRepository<UserBadgeEntity, UUID> {
 
+    /**
+     * A badge of a course together with the userBadge of one user, which is null if no userBadge is saved.
+     */
+    interface CourseUserBadgeView {
+
+        UUID getBadgeUUID();
+
+        int getPassingPercentage();
+
+        UUID getUserBadgeUUID();
+
+        Boolean getAchieved();
+
+    }
+
+    @Query("select b.badgeUUID as badgeUUID, b.passingPercentage as passingPercentage, " +
+            "ub.userBadgeUUID as userBadgeUUID, ub.achieved as achieved " +
+            "from Badge b " +
+            "left join UserBadge ub on ub.badgeUUID = b.badgeUUID and ub.userUUID = :userUUID " +
+            "where b.courseUUID = :courseUUID")
+    List<CourseUserBadgeView> findCourseUserBadges(@Param("courseUUID") UUID courseUUID,
+                                                   @Param("userUUID") UUID userUUID);
+
+    /**
+     * Retrieves a page of the badges of a course together with the userBadges of one user, ordered by the passing
+     * percentage and the id of the badges. The page starts after the badge with the given percentage and id.
+     */
+    @Query("select b.badgeUUID as badgeUUID, b.passingPercentage as passingPercentage, " +
+            "ub.userBadgeUUID as userBadgeUUID, ub.achieved as achieved " +
+            "from Badge b " +
+            "left join UserBadge ub on ub.badgeUUID = b.badgeUUID and ub.userUUID = :userUUID " +
+            "where b.courseUUID = :courseUUID " +
+            "and b.passingPercentage between :minPercentage and :maxPercentage " +
+            "and ((:quizzes = true and b.quizUUID is not null) " +
+            "or (:flashCardSets = true and b.flashCardSetUUID is not null)) " +
+            "and ((:achieved = true and ub.achieved = true) " +
+            "or (:unachieved = true and (ub.achieved is null or ub.achieved = false))) " +
+            "and (b.passingPercentage > :afterPercentage " +
+            "or (b.passingPercentage = :afterPercentage and b.badgeUUID > :afterBadgeUUID)) " +
+            "order by b.passingPercentage, b.badgeUUID")
+    List<CourseUserBadgeView> findCourseUserBadgePage(@Param("courseUUID") UUID courseUUID,
+                                                      @Param("userUUID") UUID userUUID,
+                                                      @Param("minPercentage") int minPercentage,
+                                                      @Param("maxPercentage") int maxPercentage,
+                                                      @Param("quizzes") boolean quizzes,
+                                                      @Param("flashCardSets") boolean flashCardSets,
+                                                      @Param("achieved") boolean achieved,
+                                                      @Param("unachieved") boolean unachieved,
+                                                      @Param("afterPercentage") int afterPercentage,
+                                                      @Param("afterBadgeUUID") UUID afterBadgeUUID,
+                                                      Limit limit);
+
     List<UserBadgeEntity> findByBadgeUUID(UUID badgeUUID);
     List<UserBadgeEntity> findByUserUUID(UUID userUUID);
     UserBadgeEntity findByUserUUIDAndBadgeUUID(UUID userUUID, UUID badgeUUID);
-    void deleteAllByBadgeUUID(UUID badgeUUID);
-    void deleteAllByUserUUID(UUID userUUID);
-    void deleteByUserUUIDAndBadgeUUID(UUID userUUID, UUID badgeUUID);
+
+    /**
+     * Saves the userBadge, if the user has no userBadge for the badge yet.
+     *
+     * @return 1 if the userBadge was saved, 0 if the user already has a userBadge for the badge
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into user_badge (user_badgeuuid, useruuid, badgeuuid, achieved) " +
+            "values (gen_random_uuid(), :userUUID, :badgeUUID, :achieved) " +
+            "on conflict (useruuid, badgeuuid) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("userUUID") UUID userUUID,
+                       @Param("badgeUUID") UUID badgeUUID,
+                       @Param("achieved") boolean achieved);
+
+    /**
+     * Saves the userBadge as achieved. A userBadge the user already has, is marked as achieved.
+     *
+     * @return 1 if the userBadge was saved or marked as achieved, 0 if it was achieved before
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into user_badge (user_badgeuuid, useruuid, badgeuuid, achieved) " +
+            "values (gen_random_uuid(), :userUUID, :badgeUUID, true) " +
+            "on conflict (useruuid, badgeuuid) do update set achieved = true " +
+            "where user_badge.achieved = false", nativeQuery = true)
+    int upsertAchieved(@Param("userUUID") UUID userUUID, @Param("badgeUUID") UUID badgeUUID);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserBadge ub where ub.badgeUUID in " +
+            "(select b.badgeUUID from Badge b where b.courseUUID = :courseUUID)")
+    int deleteAllOfCourse(@Param("courseUUID") UUID courseUUID);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserBadge ub where ub.badgeUUID in " +
+            "(select b.badgeUUID from Badge b where b.quizUUID = :contentUUID or b.flashCardSetUUID = :contentUUID)")
+    int deleteAllOfContent(@Param("contentUUID") UUID contentUUID);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserBadge ub where ub.userUUID = :userUUID and ub.badgeUUID in " +
+            "(select b.badgeUUID from Badge b where b.courseUUID = :courseUUID)")
+    int deleteAllOfUserAtCourse(@Param("userUUID") UUID userUUID, @Param("courseUUID") UUID courseUUID);
 
 }
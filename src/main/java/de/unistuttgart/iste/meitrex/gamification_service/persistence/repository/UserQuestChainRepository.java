@@ -2,16 +2,67 @@ package de.unistuttgart.iste.meitrex.gamification_service.persistence.repository
 
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserQuestChainEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserQuestChainRepository extends JpaRepository<UserQuestChainEntity, UUID> {
 
+    /**
+     * The current quest of a user, which is the first quest at or after the progress position of the user.
+     */
+    interface CurrentQuestView {
+
+        long getUserLevel();
+
+        UUID getQuestUUID();
+
+        UUID getQuizUUID();
+
+        UUID getFlashCardSetUUID();
+
+        String getContentName();
+
+    }
+
     List<UserQuestChainEntity> findByQuestChainUUID(UUID questChainUUID);
     UserQuestChainEntity findByQuestChainUUIDAndUserUUID(UUID questChainUUID, UUID userUUID);
-    void deleteByQuestChainUUIDAndUserUUID(UUID questChainUUID, UUID userUUID);
+    UserQuestChainEntity findByCourseUUIDAndUserUUID(UUID courseUUID, UUID userUUID);
+    List<UserQuestChainEntity> findByCourseUUID(UUID courseUUID);
+    List<UserQuestChainEntity> findByCourseUUIDAndUserUUIDIn(UUID courseUUID, Collection<UUID> userUUIDs);
+
+    /**
+     * Retrieves the current quest of the user together with the name of its content and the level of the user,
+     * without loading the other quests of the chain. Empty if the user has no userQuestChain at the course or
+     * finished all quests.
+     */
+    @Query("select (select count(q2) from QuestChain qc2 join qc2.quests q2 " +
+            "where qc2.courseUUID = uqc.courseUUID and q2.chainPosition < uqc.progressPosition) as userLevel, " +
+            "q.questUUID as questUUID, q.quizUUID as quizUUID, " +
+            "q.flashCardSetUUID as flashCardSetUUID, c.name as contentName " +
+            "from UserQuestChain uqc " +
+            "join QuestChain qc on qc.courseUUID = uqc.courseUUID " +
+            "join qc.quests q " +
+            "left join ContentMetaData c on c.contentUUID = coalesce(q.quizUUID, q.flashCardSetUUID) " +
+            "where uqc.courseUUID = :courseUUID and uqc.userUUID = :userUUID " +
+            "and q.chainPosition = (select min(q3.chainPosition) from QuestChain qc3 join qc3.quests q3 " +
+            "where qc3.courseUUID = uqc.courseUUID and q3.chainPosition >= uqc.progressPosition)")
+    Optional<CurrentQuestView> findCurrentQuest(@Param("courseUUID") UUID courseUUID,
+                                                @Param("userUUID") UUID userUUID);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserQuestChain uqc where uqc.courseUUID = :courseUUID and uqc.userUUID = :userUUID")
+    int deleteByCourseUUIDAndUserUUID(@Param("courseUUID") UUID courseUUID, @Param("userUUID") UUID userUUID);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from UserQuestChain uqc where uqc.courseUUID = :courseUUID")
+    int deleteAllOfCourse(@Param("courseUUID") UUID courseUUID);
 
 }
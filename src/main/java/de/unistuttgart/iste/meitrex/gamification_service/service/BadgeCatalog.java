@@ -0,0 +1,277 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BadgeEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.BadgeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded catalog of the badge definitions of the courses, which evicts the least recently used course when it is
+ * full. A course is loaded once and then kept up to date by the mutations of its badges, so finishing content does
+ * not read any badge definitions. The badges of a course are never modified, every change replaces them with a
+ * modified copy.
+ * <p>
+ * A course is loaded again after the configured time to live, so changes of other instances of the service are
+ * picked up eventually.
+ * <p>
+ * Every mutation of the badges of a course has to report its change. The change is applied to the catalog after
+ * the transaction of the mutation committed, and the transaction itself bypasses the catalog for this course, so
+ * neither the mutating transaction nor other transactions ever read uncommitted badges from the catalog.
+ */
+@Slf4j
+@Component
+public class BadgeCatalog {
+
+    /**
+     * The badges of a course, by their quiz or flashCardSet. Never modified, every change creates a new instance.
+     *
+     * @param tiersByContent     the badges of every content of the course, ordered by their tier
+     * @param badges             all badges of the course
+     */
+    private record CourseBadges(Map<UUID, List<BadgeDefinition>> tiersByContent, List<BadgeDefinition> badges) {
+
+        private static final CourseBadges EMPTY = new CourseBadges(Map.of(), List.of());
+
+        private static CourseBadges of(Map<UUID, List<BadgeDefinition>> tiersByContent) {
+            List<BadgeDefinition> badges = new ArrayList<>();
+            tiersByContent.values().forEach(badges::addAll);
+            return new CourseBadges(Collections.unmodifiableMap(tiersByContent), List.copyOf(badges));
+        }
+
+        private CourseBadges withBadges(Collection<BadgeEntity> badgeEntities) {
+            Map<UUID, BadgeDefinition[]> changedTiers = new LinkedHashMap<>();
+            for (BadgeEntity badgeEntity : badgeEntities) {
+                BadgeDefinition badge = BadgeDefinition.of(badgeEntity);
+                int tier = BadgeService.tierOf(badge.getPassingPercentage());
+                if (tier < 0) {
+                    log.warn("Badge {} has no tier and is left out of the catalog", badge.getBadgeUUID());
+                    continue;
+                }
+                changedTiers.computeIfAbsent(badge.getContentUUID(), content -> {
+                    BadgeDefinition[] tiers = new BadgeDefinition[BadgeService.tierCount()];
+                    for (BadgeDefinition existing : tiersByContent.getOrDefault(content, List.of())) {
+                        tiers[BadgeService.tierOf(existing.getPassingPercentage())] = existing;
+                    }
+                    return tiers;
+                })[tier] = badge;
+            }
+
+            Map<UUID, List<BadgeDefinition>> newTiersByContent = new LinkedHashMap<>(tiersByContent);
+            for (Map.Entry<UUID, BadgeDefinition[]> content : changedTiers.entrySet()) {
+                newTiersByContent.put(content.getKey(),
+                        Arrays.stream(content.getValue()).filter(Objects::nonNull).toList());
+            }
+            return of(newTiersByContent);
+        }
+
+        private CourseBadges withoutContent(UUID contentUUID) {
+            if (! tiersByContent.containsKey(contentUUID)) {
+                return this;
+            }
+            Map<UUID, List<BadgeDefinition>> newTiersByContent = new LinkedHashMap<>(tiersByContent);
+            newTiersByContent.remove(contentUUID);
+            return of(newTiersByContent);
+        }
+
+    }
+
+    /**
+     * The badges of a loaded course together with the time they were loaded at.
+     *
+     * @param courseBadges      the badges of the course
+     * @param loadedAtNanos     the {@link System#nanoTime()} the course was loaded at
+     */
+    private record LoadedCourse(CourseBadges courseBadges, long loadedAtNanos) {
+    }
+
+    private final BadgeRepository badgeRepository;
+
+    /**
+     * The badges of the loaded courses, in the order they were used in.
+     */
+    private final Map<UUID, LoadedCourse> courses;
+
+    private final long timeToLiveNanos;
+
+    /**
+     * Incremented by every applied change, so courses loaded concurrently to a change are not cached.
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    private final Counter loads;
+
+    public BadgeCatalog(BadgeRepository badgeRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${gamification.badge-catalog.max-size:1000}") int maxSize,
+                        @Value("${gamification.badge-catalog.time-to-live-seconds:300}") long timeToLiveSeconds) {
+        this.badgeRepository = badgeRepository;
+        this.courses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, LoadedCourse> eldest) {
+                return size() > maxSize;
+            }
+        });
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+        this.loads = Counter.builder("gamification.badge.catalog.loads")
+                .description("Badge catalog lookups loaded from the database")
+                .register(meterRegistry);
+        Gauge.builder("gamification.badge.catalog.size", courses, Map::size)
+                .description("Number of courses in the badge catalog")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retrieves all badges of the course.
+     *
+     * @param courseUUID     the id of the course
+     *
+     * @return the badges of the course
+     */
+    public List<BadgeDefinition> getBadgesOfCourse(UUID courseUUID) {
+        return getCourseBadges(courseUUID).badges();
+    }
+
+    /**
+     * Retrieves the badges of a quiz or flashCardSet of the course.
+     *
+     * @param courseUUID      the id of the course
+     * @param contentUUID     the id of the quiz or flashCardSet
+     *
+     * @return the badges of the content ordered by their tier, empty if the course does not contain the content
+     */
+    public List<BadgeDefinition> getBadgesOfContent(UUID courseUUID, UUID contentUUID) {
+        return getCourseBadges(courseUUID).tiersByContent().getOrDefault(contentUUID, List.of());
+    }
+
+    /**
+     * Adds the created badges of the course to the catalog.
+     *
+     * @param courseUUID     the id of the course
+     * @param badges         the created badges
+     */
+    public void badgesCreated(UUID courseUUID, List<BadgeEntity> badges) {
+        List<BadgeEntity> createdBadges = List.copyOf(badges);
+        change(courseUUID, courseBadges -> courseBadges.withBadges(createdBadges));
+    }
+
+    /**
+     * Removes the badges of the deleted quiz or flashCardSet from the catalog.
+     *
+     * @param courseUUID      the id of the course
+     * @param contentUUID     the id of the deleted quiz or flashCardSet
+     */
+    public void contentDeleted(UUID courseUUID, UUID contentUUID) {
+        change(courseUUID, courseBadges -> courseBadges.withoutContent(contentUUID));
+    }
+
+    /**
+     * Removes the badges of the deleted course from the catalog.
+     *
+     * @param courseUUID     the id of the deleted course
+     */
+    public void courseDeleted(UUID courseUUID) {
+        change(courseUUID, courseBadges -> null);
+    }
+
+    public double getLoads() {
+        return loads.count();
+    }
+
+    private CourseBadges getCourseBadges(UUID courseUUID) {
+
+        boolean changedInTransaction = getChangesOfTransaction().containsKey(courseUUID);
+        if (! changedInTransaction) {
+            LoadedCourse loadedCourse = courses.get(courseUUID);
+            if (loadedCourse != null && System.nanoTime() - loadedCourse.loadedAtNanos() < timeToLiveNanos) {
+                return loadedCourse.courseBadges();
+            }
+        }
+        loads.increment();
+
+        long changesBeforeLoad = changes.get();
+        long loadedAtNanos = System.nanoTime();
+        CourseBadges courseBadges = CourseBadges.EMPTY.withBadges(badgeRepository.findByCourseUUID(courseUUID));
+        if (! changedInTransaction) {
+            synchronized (this) {
+                if (changes.get() == changesBeforeLoad) {
+                    courses.put(courseUUID, new LoadedCourse(courseBadges, loadedAtNanos));
+                }
+            }
+        }
+        return courseBadges;
+
+    }
+
+    /**
+     * Applies the change to the course after the current transaction committed, or right away without a transaction.
+     *
+     * @param courseUUID     the id of the changed course
+     * @param change         the change, which returns null if the course is removed
+     */
+    private void change(UUID courseUUID, UnaryOperator<CourseBadges> change) {
+
+        if (! TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(Map.of(courseUUID, List.of(change)));
+            return;
+        }
+
+        Map<UUID, List<UnaryOperator<CourseBadges>>> changesOfTransaction = getChangesOfTransaction();
+        if (changesOfTransaction.isEmpty()) {
+            Map<UUID, List<UnaryOperator<CourseBadges>>> courseChanges = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, courseChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BadgeCatalog.this);
+                    if (status == STATUS_COMMITTED) {
+                        apply(courseChanges);
+                    }
+                }
+            });
+            changesOfTransaction = courseChanges;
+        }
+        changesOfTransaction.computeIfAbsent(courseUUID, course -> new ArrayList<>()).add(change);
+
+    }
+
+    private synchronized void apply(Map<UUID, List<UnaryOperator<CourseBadges>>> courseChanges) {
+        changes.incrementAndGet();
+        for (Map.Entry<UUID, List<UnaryOperator<CourseBadges>>> course : courseChanges.entrySet()) {
+            LoadedCourse loadedCourse = courses.get(course.getKey());
+            if (loadedCourse == null) {
+                // courses that are not loaded are loaded with their committed badges on the next lookup
+                continue;
+            }
+            CourseBadges courseBadges = loadedCourse.courseBadges();
+            for (UnaryOperator<CourseBadges> change : course.getValue()) {
+                courseBadges = change.apply(courseBadges);
+                if (courseBadges == null) {
+                    break;
+                }
+            }
+            if (courseBadges == null) {
+                courses.remove(course.getKey());
+            } else {
+                courses.put(course.getKey(), new LoadedCourse(courseBadges, loadedCourse.loadedAtNanos()));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, List<UnaryOperator<CourseBadges>>> getChangesOfTransaction() {
+        Object courseChanges = TransactionSynchronizationManager.getResource(this);
+        return courseChanges == null ? Map.of() : (Map<UUID, List<UnaryOperator<CourseBadges>>>) courseChanges;
+    }
+
+}
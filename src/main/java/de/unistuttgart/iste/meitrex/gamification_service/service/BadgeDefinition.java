@@ -0,0 +1,58 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BadgeEntity;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+/**
+ * Immutable definition of a badge, which is shared between requests by the {@link BadgeCatalog}.
+ */
+@Getter
+@ToString
+public final class BadgeDefinition {
+
+    private final UUID badgeUUID;
+
+    private final UUID courseUUID;
+
+    private final UUID quizUUID;
+
+    private final UUID flashCardSetUUID;
+
+    private final int passingPercentage;
+
+    /**
+     * The bit of the badge in the bitset storage, -1 if the badge has none.
+     */
+    private final int achievementBit;
+
+    private BadgeDefinition(BadgeEntity badge) {
+        this.badgeUUID = badge.getBadgeUUID();
+        this.courseUUID = badge.getCourseUUID();
+        this.quizUUID = badge.getQuizUUID();
+        this.flashCardSetUUID = badge.getFlashCardSetUUID();
+        this.passingPercentage = badge.getPassingPercentage();
+        this.achievementBit = BadgeService.achievementBitOf(badge);
+    }
+
+    /**
+     * Creates the definition of the current state of the badge.
+     *
+     * @param badge     the badge entity
+     *
+     * @return the definition
+     */
+    public static BadgeDefinition of(BadgeEntity badge) {
+        return new BadgeDefinition(badge);
+    }
+
+    /**
+     * @return the id of the quiz or flashCardSet of the badge
+     */
+    public UUID getContentUUID() {
+        return quizUUID != null ? quizUUID : flashCardSetUUID;
+    }
+
+}
@@ -1,16 +1,24 @@
 package de.unistuttgart.iste.meitrex.gamification_service.service;
 
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BadgeEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.CourseEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeBitsetEntity;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeEntity;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.mapper.BadgeMapper;
-import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.BadgeRepository;
-import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.*;
+import de.unistuttgart.iste.meitrex.generated.dto.BadgeContentType;
+import de.unistuttgart.iste.meitrex.generated.dto.BadgeTier;
 import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadgeFilter;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadgePage;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
@@ -21,16 +29,104 @@ public class BadgeService {
 
     private final BadgeRepository badgeRepository;
     private final UserBadgeRepository userBadgeRepository;
+    private final CourseMembershipRepository courseMembershipRepository;
+    private final CourseRepository courseRepository;
+    private final UserBadgeBitsetRepository userBadgeBitsetRepository;
+    private final UserBadgeBulkWriter userBadgeBulkWriter;
+    private final BadgeCatalog badgeCatalog;
 
     private final BadgeMapper badgeMapper;
 
+    /**
+     * How the userBadges are persisted.
+     */
+    public enum UserBadgeStorage {
+        /**
+         * A userBadge is saved for every member of the course and every badge, achieved or not.
+         */
+        EAGER,
+        /**
+         * Only achieved userBadges are saved, the others are synthesized when they are read.
+         */
+        SPARSE,
+        /**
+         * One bitset per member of the course is saved, with a bit for every badge of the course.
+         */
+        BITSET
+    }
+
+    @Value("${gamification.badges.storage:sparse}")
+    private UserBadgeStorage userBadgeStorage;
+
     public static final int bronzePassingPercentage = 50;
     public static final int silverPassingPercentage = 70;
     public static final int goldPassingPercentage = 90;
 
-    public static final String descriptionPart1 = "At least ";
-    public static final String descriptionPart2 = "% of your answers for the ";
-    public static final String descriptionPart3 = " are correct.";
+    /**
+     * The maximum number of userBadges of a page, larger pages are cut to it.
+     */
+    public static final int maxPageSize = 100;
+
+    private static final int[] tierPassingPercentages =
+            {bronzePassingPercentage, silverPassingPercentage, goldPassingPercentage};
+
+    /**
+     * @return the number of badges of a quiz or flashCardSet
+     */
+    public static int tierCount() {
+        return tierPassingPercentages.length;
+    }
+
+    /**
+     * Retrieves the tier of a badge, the bronze badge has tier 0.
+     *
+     * @param passingPercentage   the required percentage to get the badge
+     *
+     * @return the tier or -1, if no tier requires the percentage
+     */
+    public static int tierOf(int passingPercentage) {
+        for (int tier = 0; tier < tierPassingPercentages.length; tier++) {
+            if (tierPassingPercentages[tier] == passingPercentage) {
+                return tier;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the bit of the badge in the bitset storage. The badges of a content occupy three consecutive bits,
+     * starting at three times the ordinal of the content.
+     *
+     * @param badgeEntity   the badge
+     *
+     * @return the bit of the badge or -1, if the badge has no content ordinal or tier
+     */
+    public static int achievementBitOf(BadgeEntity badgeEntity) {
+        return achievementBitOf(badgeEntity.getContentOrdinal(), badgeEntity.getPassingPercentage());
+    }
+
+    /**
+     * Retrieves the bit of a badge in the bitset storage.
+     *
+     * @param contentOrdinal      the ordinal of the content of the badge
+     * @param passingPercentage   the required percentage to get the badge
+     *
+     * @return the bit of the badge or -1, if the badge has no content ordinal or tier
+     */
+    public static int achievementBitOf(Integer contentOrdinal, int passingPercentage) {
+        int tier = tierOf(passingPercentage);
+        if (contentOrdinal == null || tier < 0) {
+            return -1;
+        }
+        return contentOrdinal * tierPassingPercentages.length + tier;
+    }
+
+    /**
+     * @return how the userBadges are persisted
+     */
+    public UserBadgeStorage getUserBadgeStorage() {
+        return userBadgeStorage;
+    }
 
     /**
      * Retrieves the complete list of badges of the course
@@ -50,22 +146,144 @@ public class BadgeService {
      * @param userUUID     the id of the user
      *
      * @return a List of UserBadges, which contains all UserBadges of this course, that refer to the user.
+     *         Badges the user has no saved userBadge for are returned as not achieved. Their descriptions are
+     *         resolved with {@link #getDescriptions(List)}.
      */
     public List<UserBadge> getUserBadgesByCourseUUID(UUID courseUUID, UUID userUUID) {
 
-        List<BadgeEntity> badgeEntities = badgeRepository.findByCourseUUID(courseUUID);
         List<UserBadge> userBadges = new LinkedList<UserBadge>();
+        if (! courseMembershipRepository.existsByCourseUUIDAndUserUUID(courseUUID, userUUID)) {
+            return userBadges;
+        }
 
-        for (BadgeEntity badgeEntity : badgeEntities) {
-            UserBadgeEntity userBadgeEntity = userBadgeRepository.findByUserUUIDAndBadgeUUID(userUUID, badgeEntity.getBadgeUUID());
-            if (userBadgeEntity != null) {
-                userBadges.add(badgeMapper.userBadgeEntityToDto(userBadgeEntity, badgeEntity));
+        if (userBadgeStorage == UserBadgeStorage.BITSET) {
+            BitSet achievedBits = userBadgeBitsetRepository.findByCourseUUIDAndUserUUID(courseUUID, userUUID)
+                    .map(UserBadgeBitsetEntity::getAchievedBits)
+                    .orElseGet(BitSet::new);
+            for (BadgeDefinition badge : badgeCatalog.getBadgesOfCourse(courseUUID)) {
+                UserBadgeEntity userBadgeEntity = unachievedUserBadge(userUUID, badge.getBadgeUUID());
+                int bit = badge.getAchievementBit();
+                userBadgeEntity.setAchieved(bit >= 0 && achievedBits.get(bit));
+                userBadges.add(badgeMapper.userBadgeEntityToDto(userBadgeEntity, badge.getPassingPercentage()));
             }
+            return userBadges;
+        }
+
+        for (UserBadgeRepository.CourseUserBadgeView view : userBadgeRepository.findCourseUserBadges(courseUUID, userUUID)) {
+            userBadges.add(courseUserBadgeViewToDto(userUUID, view));
         }
         return userBadges;
 
     }
 
+    /**
+     * Retrieves a page of the userBadges of the course for the user. The userBadges are ordered by the passing
+     * percentage and then by the id of their badge, and the page starts after the badge the cursor points to.
+     *
+     * @param courseUUID   the id of the course
+     * @param userUUID     the id of the user
+     * @param filter       the filter of the userBadges, null to get all of them
+     * @param first        the maximum number of userBadges of the page, cut to {@link #maxPageSize}
+     * @param after        the cursor of the previous page, null for the first page
+     *
+     * @return the page, which is empty if the user is not a member of the course or the cursor is invalid
+     */
+    public UserBadgePage getUserBadgePage(UUID courseUUID, UUID userUUID, UserBadgeFilter filter, int first,
+                                          String after) {
+
+        UserBadgePage page = new UserBadgePage();
+        page.setElements(new ArrayList<>());
+        page.setHasNext(false);
+        Optional<UserBadgeCursor> cursor = UserBadgeCursor.decode(after);
+        if (cursor.isEmpty() || first <= 0
+                || ! courseMembershipRepository.existsByCourseUUIDAndUserUUID(courseUUID, userUUID)) {
+            return page;
+        }
+        int pageSize = Math.min(first, maxPageSize);
+
+        Boolean achieved = filter == null ? null : filter.getAchieved();
+        BadgeTier tier = filter == null ? null : filter.getTier();
+        BadgeContentType contentType = filter == null ? null : filter.getContentType();
+        int minPercentage = tier == null ? Integer.MIN_VALUE : tierPassingPercentages[tier.ordinal()];
+        int maxPercentage = tier == null ? Integer.MAX_VALUE : tierPassingPercentages[tier.ordinal()];
+
+        // one more userBadge is read to know, whether there is a next page
+        List<UserBadge> userBadges = new ArrayList<>();
+        if (userBadgeStorage == UserBadgeStorage.BITSET) {
+            BitSet achievedBits = userBadgeBitsetRepository.findByCourseUUIDAndUserUUID(courseUUID, userUUID)
+                    .map(UserBadgeBitsetEntity::getAchievedBits)
+                    .orElseGet(BitSet::new);
+            List<BadgeDefinition> badges = badgeCatalog.getBadgesOfCourse(courseUUID).stream()
+                    .filter(badge -> cursor.get().isBefore(badge))
+                    .filter(badge -> minPercentage <= badge.getPassingPercentage()
+                            && badge.getPassingPercentage() <= maxPercentage)
+                    .filter(badge -> contentType == null
+                            || (contentType == BadgeContentType.QUIZ) == (badge.getQuizUUID() != null))
+                    .filter(badge -> achieved == null || achieved == (badge.getAchievementBit() >= 0
+                            && achievedBits.get(badge.getAchievementBit())))
+                    .sorted(Comparator.comparingInt(BadgeDefinition::getPassingPercentage)
+                            .thenComparing(badge -> badge.getBadgeUUID().toString()))
+                    .limit(pageSize + 1L)
+                    .toList();
+            for (BadgeDefinition badge : badges) {
+                UserBadgeEntity userBadgeEntity = unachievedUserBadge(userUUID, badge.getBadgeUUID());
+                userBadgeEntity.setAchieved(badge.getAchievementBit() >= 0 && achievedBits.get(badge.getAchievementBit()));
+                userBadges.add(badgeMapper.userBadgeEntityToDto(userBadgeEntity, badge.getPassingPercentage()));
+            }
+        } else {
+            for (UserBadgeRepository.CourseUserBadgeView view : userBadgeRepository.findCourseUserBadgePage(courseUUID,
+                    userUUID, minPercentage, maxPercentage,
+                    contentType != BadgeContentType.FLASH_CARD_SET, contentType != BadgeContentType.QUIZ,
+                    ! Boolean.FALSE.equals(achieved), ! Boolean.TRUE.equals(achieved),
+                    cursor.get().passingPercentage(), cursor.get().badgeUUID(), Limit.of(pageSize + 1))) {
+                userBadges.add(courseUserBadgeViewToDto(userUUID, view));
+            }
+        }
+
+        if (userBadges.size() > pageSize) {
+            userBadges = userBadges.subList(0, pageSize);
+            page.setHasNext(true);
+        }
+        page.setElements(userBadges);
+        if (! userBadges.isEmpty()) {
+            UserBadge last = userBadges.get(userBadges.size() - 1);
+            page.setEndCursor(new UserBadgeCursor(last.getPassingPercentage(), last.getBadgeUUID()).encode());
+        }
+        return page;
+
+    }
+
+    /**
+     * Renders the descriptions of the badges of several userBadges at once, with one query for the badges and the
+     * names of their content.
+     *
+     * @param userBadges   the userBadges, for example all userBadges of a GraphQL request
+     *
+     * @return the description of the badge of every userBadge
+     */
+    public Map<UserBadge, String> getDescriptions(List<UserBadge> userBadges) {
+
+        Set<UUID> badgeUUIDs = new HashSet<>();
+        for (UserBadge userBadge : userBadges) {
+            badgeUUIDs.add(userBadge.getBadgeUUID());
+        }
+
+        Map<UUID, String> descriptionsByBadge = new HashMap<>();
+        if (! badgeUUIDs.isEmpty()) {
+            for (BadgeRepository.BadgeDescriptionView badge : badgeRepository.findBadgeDescriptions(badgeUUIDs)) {
+                descriptionsByBadge.put(badge.getBadgeUUID(), BadgeMapper.renderDescription(
+                        badge.getPassingPercentage(), badge.getQuizUUID() != null, badge.getContentName()));
+            }
+        }
+
+        Map<UserBadge, String> descriptions = new HashMap<>();
+        for (UserBadge userBadge : userBadges) {
+            descriptions.put(userBadge, descriptionsByBadge.get(userBadge.getBadgeUUID()));
+        }
+        return descriptions;
+
+    }
+
     /**
      * Retrieves the complete list of badges that refer to the quiz
      *
@@ -96,10 +314,13 @@ public class BadgeService {
      */
     public void assignCoursesBadgesToUser(UUID courseUUID, UUID userUUID) {
 
-        List<BadgeEntity> badges = getBadgesByCourseUUID(courseUUID);
-        for (BadgeEntity badge : badges) {
-            assignBadgeToUser(userUUID, badge.getBadgeUUID());
+        if (userBadgeStorage != UserBadgeStorage.EAGER) {
+            return;
         }
+        List<UUID> badgeUUIDs = badgeCatalog.getBadgesOfCourse(courseUUID).stream()
+                .map(BadgeDefinition::getBadgeUUID)
+                .toList();
+        userBadgeBulkWriter.insertUnachieved(List.of(userUUID), badgeUUIDs);
 
     }
 
@@ -109,174 +330,82 @@ public class BadgeService {
      * @param courseUUID   the id of the deleted course
      */
     public void deleteBadgesAndUserBadgesOfCourse(UUID courseUUID) {
-        List<BadgeEntity> courseBadges = this.deleteBadgesOfCourse(courseUUID);
-        this.deleteUserBadges(courseBadges);
+        userBadgeRepository.deleteAllOfCourse(courseUUID);
+        userBadgeBitsetRepository.deleteByCourseUUID(courseUUID);
+        badgeRepository.deleteAllOfCourse(courseUUID);
+        badgeCatalog.courseDeleted(courseUUID);
     }
 
     /**
      * Removes all badges from the badgeRepository of the quiz and all corresponding userBadges
      *
-     * @param quizUUID   the id of the deleted quiz
+     * @param courseUUID   the id of the course
+     * @param quizUUID     the id of the deleted quiz
      */
-    public void deleteBadgesAndUserBadgesOfQuiz(UUID quizUUID) {
-        List<BadgeEntity> quizBadges = this.deleteBadgesOfQuiz(quizUUID);
-        this.deleteUserBadges(quizBadges);
+    public void deleteBadgesAndUserBadgesOfQuiz(UUID courseUUID, UUID quizUUID) {
+        userBadgeRepository.deleteAllOfContent(quizUUID);
+        badgeRepository.deleteAllOfContent(quizUUID);
+        badgeCatalog.contentDeleted(courseUUID, quizUUID);
     }
 
     /**
      * Removes all badges from the badgeRepository of the fcs and all corresponding userBadges
      *
+     * @param courseUUID         the id of the course
      * @param flashCardSetUUID   the id of the deleted fcs
      */
-    public void deleteBadgesAndUserBadgesOfFCS(UUID flashCardSetUUID) {
-        List<BadgeEntity> fcsBadges = this.deleteBadgesOfFCS(flashCardSetUUID);
-        this.deleteUserBadges(fcsBadges);
-    }
-
-    /**
-     * Removes all badges from the badgeRepository of the course
-     *
-     * @param courseUUID   the id of the deleted course
-     *
-     * @return a List of BadgeEntitys, which contains all Badges of this course
-     */
-    public List<BadgeEntity> deleteBadgesOfCourse(UUID courseUUID) {
-        List<BadgeEntity> courseBadges = badgeRepository.findByCourseUUID(courseUUID);
-        badgeRepository.deleteAll(courseBadges);
-        return courseBadges;
-    }
-
-    /**
-     * Removes all badges from the badgeRepository of the quiz
-     *
-     * @param quizUUID   the id of the deleted course
-     *
-     * @return a List of BadgeEntitys, which contains all Badges of this quiz
-     */
-    public List<BadgeEntity> deleteBadgesOfQuiz(UUID quizUUID) {
-        List<BadgeEntity> quizBadges = badgeRepository.findByQuizUUID(quizUUID);
-        badgeRepository.deleteAll(quizBadges);
-        return quizBadges;
-    }
-
-    /**
-     * Removes all badges from the badgeRepository of the fcs
-     *
-     * @param flashCardSetUUID   the id of the deleted fcs
-     *
-     * @return a List of BadgeEntitys, which contains all Badges of this fcs
-     */
-    public List<BadgeEntity> deleteBadgesOfFCS(UUID flashCardSetUUID) {
-        List<BadgeEntity> fcsBadges = badgeRepository.findByFlashCardSetUUID(flashCardSetUUID);
-        badgeRepository.deleteAll(fcsBadges);
-        return fcsBadges;
+    public void deleteBadgesAndUserBadgesOfFCS(UUID courseUUID, UUID flashCardSetUUID) {
+        userBadgeRepository.deleteAllOfContent(flashCardSetUUID);
+        badgeRepository.deleteAllOfContent(flashCardSetUUID);
+        badgeCatalog.contentDeleted(courseUUID, flashCardSetUUID);
     }
 
     /**
-     * Removes all userBadges from the userBadgeRepository that refer to the given badges
+     * Assigns the Badge for the user and saves it in the userBadgeRepository as not achieved, if the user has no
+     * userBadge for it yet
      *
-     * @param badgeEntities   the deleted badges
+     * @param userUUID             the id of the user
+     * @param badgeUUID            the id of the badge
      */
-    public void deleteUserBadges(List<BadgeEntity> badgeEntities) {
-        for (BadgeEntity badgeEntity : badgeEntities) {
-            userBadgeRepository.deleteAllByBadgeUUID(badgeEntity.getBadgeUUID());
-        }
+    public void assignBadgeToUser(UUID userUUID, UUID badgeUUID) {
+        userBadgeRepository.insertIfAbsent(userUUID, badgeUUID, false);
     }
 
     /**
-     * Change the name of the flashCardSet in its Badges
+     * Creates the not achieved userBadge of a user, that is not saved in the sparse storage. Its id is derived from
+     * the ids of the user and the badge, so it is the same for every read.
      *
-     * @param flashCardSetUUID   the id of fcs
-     * @param name               the new name of the fcs
-     */
-    public void changeFlashCardSetName(UUID flashCardSetUUID, String name) {
-        List<BadgeEntity> fcsBadges = badgeRepository.findByFlashCardSetUUID(flashCardSetUUID);
-        for (BadgeEntity fcsBadge : fcsBadges) {
-            fcsBadge.setDescription(descriptionPart1 + fcsBadge.getPassingPercentage() + descriptionPart2 +
-                    "flashCardSet " + name + descriptionPart3);
-            badgeRepository.save(fcsBadge);
-        }
-    }
-
-    /**
-     * Change the name of the quiz in its Badges
+     * @param userUUID             the id of the user
+     * @param badgeUUID            the id of the badge
      *
-     * @param quizUUID   the id of quiz
-     * @param name       the new name of the quiz
+     * @return the not achieved userBadge
      */
-    public void changeQuizName(UUID quizUUID, String name) {
-        List<BadgeEntity> quizBadges = badgeRepository.findByQuizUUID(quizUUID);
-        for (BadgeEntity quizBadge : quizBadges) {
-            quizBadge.setDescription(descriptionPart1 + quizBadge.getPassingPercentage() + descriptionPart2 + "quiz "
-                    + name + descriptionPart3);
-            badgeRepository.save(quizBadge);
-        }
+    public static UserBadgeEntity unachievedUserBadge(UUID userUUID, UUID badgeUUID) {
+        UserBadgeEntity userBadgeEntity = new UserBadgeEntity();
+        userBadgeEntity.setUserBadgeUUID(UUID.nameUUIDFromBytes(
+                (userUUID.toString() + badgeUUID.toString()).getBytes(StandardCharsets.UTF_8)));
+        userBadgeEntity.setUserUUID(userUUID);
+        userBadgeEntity.setBadgeUUID(badgeUUID);
+        userBadgeEntity.setAchieved(false);
+        return userBadgeEntity;
     }
 
     /**
-     * Marks the UserBadge of the user as achieved, if he got more answers correct than the passingPercentage of the
-     * Badges, that refer to the quiz
+     * Maps a userBadge of the course, that is read together with its badge, to its DTO. Badges without a saved
+     * userBadge are mapped to their not achieved userBadge.
      *
      * @param userUUID             the id of the user
-     * @param quizUUID             the id of the quiz
-     * @param correctAnswers       the number of correct answers, the user got for this quiz
-     * @param totalAnswers         the total number of questions in this quiz
-     */
-    public void markBadgesAsAchievedIfPassedQuiz(UUID userUUID, UUID quizUUID, int correctAnswers, int totalAnswers) {
-
-        if (correctAnswers > totalAnswers
-                || correctAnswers < 0) {
-            return;
-        }
-
-        int percentage = (correctAnswers * 100) / totalAnswers;
-        List<BadgeEntity> quizBadges = this.getBadgesByQuizUUID(quizUUID);
-        for (BadgeEntity quizBadge : quizBadges) {
-            if (percentage >= quizBadge.getPassingPercentage()) {
-                markBadgeAsAchieved(userUUID, quizBadge.getBadgeUUID());
-            }
-        }
-
-    }
-
-    /**
-     * Marks the UserBadge of the user as achieved, if he got more answers correct than the passingPercentage of the
-     * Badges, that refer to the flashCardSet
+     * @param view                 the badge and the saved userBadge, if there is one
      *
-     * @param userUUID             the id of the user
-     * @param flashCardSetUUID     the id of the flashCardSet
-     * @param correctAnswers       the number of correct answers, the user got for this flashCardSet
-     * @param totalAnswers         the total number of questions in this flashCardSet
+     * @return the userBadge
      */
-    public void markBadgesAsAchievedIfPassedFlashCardSet(UUID userUUID, UUID flashCardSetUUID, int correctAnswers, int totalAnswers) {
-
-        if (correctAnswers > totalAnswers
-        || correctAnswers < 0) {
-            return;
+    private UserBadge courseUserBadgeViewToDto(UUID userUUID, UserBadgeRepository.CourseUserBadgeView view) {
+        UserBadgeEntity userBadgeEntity = unachievedUserBadge(userUUID, view.getBadgeUUID());
+        if (view.getUserBadgeUUID() != null) {
+            userBadgeEntity.setUserBadgeUUID(view.getUserBadgeUUID());
         }
-
-        int percentage = (correctAnswers * 100) / totalAnswers;
-        List<BadgeEntity> flashCardSetBadges = this.getBadgesByFlashCardSetUUID(flashCardSetUUID);
-        for (BadgeEntity flashCardSetBadge : flashCardSetBadges) {
-            if (percentage >= flashCardSetBadge.getPassingPercentage()) {
-                markBadgeAsAchieved(userUUID, flashCardSetBadge.getBadgeUUID());
-            }
-        }
-
-    }
-
-    /**
-     * Assigns the Badge for the user and saves it in the userBadgeRepository as not achieved
-     *
-     * @param userUUID             the id of the user
-     * @param badgeUUID            the id of the badge
-     */
-    public void assignBadgeToUser(UUID userUUID, UUID badgeUUID) {
-        UserBadgeEntity userBadgeEntity = new UserBadgeEntity();
-        userBadgeEntity.setUserUUID(userUUID);
-        userBadgeEntity.setBadgeUUID(badgeUUID);
-        userBadgeEntity.setAchieved(false);
-        userBadgeRepository.save(userBadgeEntity);
+        userBadgeEntity.setAchieved(Boolean.TRUE.equals(view.getAchieved()));
+        return badgeMapper.userBadgeEntityToDto(userBadgeEntity, view.getPassingPercentage());
     }
 
     /**
@@ -286,26 +415,25 @@ public class BadgeService {
      * @param courseUUID             the id of the course
      */
     public void deleteUserBadgesOfCourse(UUID userUUID, UUID courseUUID) {
-        List<BadgeEntity> badgeEntities = badgeRepository.findByCourseUUID(courseUUID);
-
-        for (BadgeEntity badgeEntity : badgeEntities) {
-            userBadgeRepository.deleteByUserUUIDAndBadgeUUID(userUUID, badgeEntity.getBadgeUUID());
-        }
+        userBadgeRepository.deleteAllOfUserAtCourse(userUUID, courseUUID);
+        userBadgeBitsetRepository.deleteByCourseUUIDAndUserUUID(courseUUID, userUUID);
     }
 
     /**
-     * Marks the userBadge as achieved and saves it in the userBadgeRepository
+     * Takes a new content ordinal of the course for the badges of a new quiz or flashCardSet.
      *
-     * @param userUUID             the id of the user
-     * @param badgeUUID            the id of the badge
+     * @param courseUUID             the id of the course
+     *
+     * @return the content ordinal or null, if the course does not exist
      */
-    public void markBadgeAsAchieved(UUID userUUID, UUID badgeUUID) {
-        UserBadgeEntity userBadge = userBadgeRepository.findByUserUUIDAndBadgeUUID(userUUID, badgeUUID);
-        if (userBadge == null) {
-            return;
+    private Integer takeContentOrdinal(UUID courseUUID) {
+        Optional<CourseEntity> course = courseRepository.findByIdForUpdate(courseUUID);
+        if (course.isEmpty()) {
+            return null;
         }
-        userBadge.setAchieved(true);
-        userBadgeRepository.save(userBadge);
+        int contentOrdinal = course.get().takeContentOrdinal();
+        courseRepository.save(course.get());
+        return contentOrdinal;
     }
 
     /**
@@ -313,48 +441,51 @@ public class BadgeService {
      * 70 and 90% correct answers
      *
      * @param flashCardSetUUID     the id of the created flashCardSet
-     * @param name                 the name of the flashCardSet
      * @param courseUUID           the id of the course
      * @param coursesUsers         the UUIDs of the members of the course
      */
     public List<BadgeEntity> createBadgesForFlashCardSet(UUID flashCardSetUUID,
-                                                   String name,
                                                    UUID courseUUID,
                                                    Set<UUID> coursesUsers) {
         List<BadgeEntity> badgeEntities = new LinkedList<>();
+        Integer contentOrdinal = takeContentOrdinal(courseUUID);
 
         // 50% Badge
-        badgeEntities.add(createBadgeForFlashCardSet(flashCardSetUUID, name, bronzePassingPercentage, courseUUID, coursesUsers));
+        badgeEntities.add(createBadgeForFlashCardSet(flashCardSetUUID, bronzePassingPercentage, courseUUID, contentOrdinal));
         // 70% Badge
-        badgeEntities.add(createBadgeForFlashCardSet(flashCardSetUUID, name, silverPassingPercentage, courseUUID, coursesUsers));
+        badgeEntities.add(createBadgeForFlashCardSet(flashCardSetUUID, silverPassingPercentage, courseUUID, contentOrdinal));
         // 90% Badge
-        badgeEntities.add(createBadgeForFlashCardSet(flashCardSetUUID, name, goldPassingPercentage, courseUUID, coursesUsers));
+        badgeEntities.add(createBadgeForFlashCardSet(flashCardSetUUID, goldPassingPercentage, courseUUID, contentOrdinal));
 
+        if (userBadgeStorage == UserBadgeStorage.EAGER) {
+            // one bulk insert assigns all the badges of the content to all the users of the course
+            userBadgeBulkWriter.insertUnachieved(coursesUsers,
+                    badgeEntities.stream().map(BadgeEntity::getBadgeUUID).toList());
+        }
+        badgeCatalog.badgesCreated(courseUUID, badgeEntities);
         return badgeEntities;
     }
 
     /**
-     * Creates a Badge for the new flashCardSet and assigns it to all the users of the course
+     * Creates a Badge for the new flashCardSet. The badge is assigned to the users of the course together with the
+     * other badges of the flashCardSet.
      *
      * @param flashCardSetUUID     the id of the created flashCardSet
-     * @param name                 the name of the flashCardSet
      * @param passingPercentage    the required percentage to get this badge
      * @param courseUUID           the id of the course
-     * @param coursesUsers         the UUIDs of the members of the course
+     * @param contentOrdinal       the ordinal of the flashCardSet in the course
      */
-    public BadgeEntity createBadgeForFlashCardSet(UUID flashCardSetUUID, String name, int passingPercentage, UUID courseUUID, Set<UUID> coursesUsers) {
+    public BadgeEntity createBadgeForFlashCardSet(UUID flashCardSetUUID, int passingPercentage, UUID courseUUID,
+                                  Integer contentOrdinal) {
 
         BadgeEntity badgeEntity = new BadgeEntity();
-        badgeEntity.setDescription(descriptionPart1 + passingPercentage + descriptionPart2 + "flashCardSet " + name + descriptionPart3);
         badgeEntity.setPassingPercentage(passingPercentage);
         badgeEntity.setFlashCardSetUUID(flashCardSetUUID);
         badgeEntity.setCourseUUID(courseUUID);
+        badgeEntity.setContentOrdinal(contentOrdinal);
 
         badgeEntity = badgeRepository.save(badgeEntity);
 
-        for (UUID userUUID : coursesUsers) {
-            assignBadgeToUser(userUUID, badgeEntity.getBadgeUUID());
-        }
         return badgeEntity;
 
     }
@@ -364,48 +495,51 @@ public class BadgeService {
      * 70 and 90% correct answers
      *
      * @param quizUUID             the id of the created quiz
-     * @param name                 the name of the quiz
      * @param courseUUID           the id of the course
      * @param coursesUsers         the UUIDs of the members of the course
      */
     public List<BadgeEntity> createBadgesForQuiz(UUID quizUUID,
-                                    String name,
                                     UUID courseUUID,
                                     Set<UUID> coursesUsers) {
         List<BadgeEntity> badgeEntities = new LinkedList<>();
+        Integer contentOrdinal = takeContentOrdinal(courseUUID);
 
         // 50% Badge
-        badgeEntities.add(createBadgeForQuiz(quizUUID, name, bronzePassingPercentage, courseUUID, coursesUsers));
+        badgeEntities.add(createBadgeForQuiz(quizUUID, bronzePassingPercentage, courseUUID, contentOrdinal));
         // 70% Badge
-        badgeEntities.add(createBadgeForQuiz(quizUUID, name, silverPassingPercentage, courseUUID, coursesUsers));
+        badgeEntities.add(createBadgeForQuiz(quizUUID, silverPassingPercentage, courseUUID, contentOrdinal));
         // 90% Badge
-        badgeEntities.add(createBadgeForQuiz(quizUUID, name, goldPassingPercentage, courseUUID, coursesUsers));
+        badgeEntities.add(createBadgeForQuiz(quizUUID, goldPassingPercentage, courseUUID, contentOrdinal));
 
+        if (userBadgeStorage == UserBadgeStorage.EAGER) {
+            // one bulk insert assigns all the badges of the content to all the users of the course
+            userBadgeBulkWriter.insertUnachieved(coursesUsers,
+                    badgeEntities.stream().map(BadgeEntity::getBadgeUUID).toList());
+        }
+        badgeCatalog.badgesCreated(courseUUID, badgeEntities);
         return badgeEntities;
     }
 
     /**
-     * Creates a Badge for the new quiz and assigns it to all the users of the course
+     * Creates a Badge for the new quiz. The badge is assigned to the users of the course together with the
+     * other badges of the quiz.
      *
      * @param quizUUID             the id of the created quiz
-     * @param name                 the name of the quiz
      * @param passingPercentage    the required percentage to get this badge
      * @param courseUUID           the id of the course
-     * @param coursesUsers         the UUIDs of the members of the course
+     * @param contentOrdinal       the ordinal of the quiz in the course
      */
-    public BadgeEntity createBadgeForQuiz(UUID quizUUID, String name, int passingPercentage, UUID courseUUID, Set<UUID> coursesUsers) {
+    public BadgeEntity createBadgeForQuiz(UUID quizUUID, int passingPercentage, UUID courseUUID,
+                                  Integer contentOrdinal) {
 
         BadgeEntity badgeEntity = new BadgeEntity();
-        badgeEntity.setDescription(descriptionPart1 + passingPercentage + descriptionPart2 + "quiz " + name + descriptionPart3);
         badgeEntity.setPassingPercentage(passingPercentage);
         badgeEntity.setQuizUUID(quizUUID);
         badgeEntity.setCourseUUID(courseUUID);
+        badgeEntity.setContentOrdinal(contentOrdinal);
 
         badgeEntity = badgeRepository.save(badgeEntity);
 
-        for (UUID userUUID : coursesUsers) {
-            assignBadgeToUser(userUUID, badgeEntity.getBadgeUUID());
-        }
         return badgeEntity;
 
     }
@@ -0,0 +1,198 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.BloomLevelRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind buffer for the exp of the BloomLevels. When enabled, the exp gains are accumulated in memory per user
+ * and course and written to the database in periodic bulk updates instead of one update per finished content.
+ * The counters live in a {@link ConcurrentHashMap}, whose per-bin locking stripes concurrent gains of different
+ * users, while the gains of one user and course are merged atomically.
+ * <p>
+ * A flush swaps the whole map of pending exp for an empty one and writes the swapped out map. The swap holds the
+ * write lock, while gains and reads hold the read lock, so a read always sees every gain, either in the pending or
+ * in the flushing map.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BloomLevelExpBuffer {
+
+    private record BloomLevelKey(UUID userUUID, UUID courseUUID) {
+    }
+
+    private final BloomLevelRepository bloomLevelRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${gamification.bloom-level.write-behind.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Guards the references to the maps. The read lock is held to access the maps, the write lock to swap them.
+     */
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private Map<BloomLevelKey, Integer> pendingExp = new ConcurrentHashMap<>();
+
+    /**
+     * The exp that is currently written by a flush, so reads still see it until the flush is done.
+     */
+    private Map<BloomLevelKey, Integer> flushingExp = Map.of();
+
+    /**
+     * Serializes the flushes and the discards, so no exp is written after it was discarded.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * @return whether the exp gains are buffered or written immediately
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers exp gained by the user at the course.
+     *
+     * @param userUUID       the id of the user
+     * @param courseUUID     the id of the course
+     * @param exp            the gained exp
+     */
+    public void add(UUID userUUID, UUID courseUUID, int exp) {
+        if (exp == 0) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            pendingExp.merge(new BloomLevelKey(userUUID, courseUUID), exp, Integer::sum);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the exp of the user at the course, that is not written to the database yet.
+     *
+     * @param userUUID       the id of the user
+     * @param courseUUID     the id of the course
+     *
+     * @return the pending exp
+     */
+    public int getPendingExp(UUID userUUID, UUID courseUUID) {
+        BloomLevelKey key = new BloomLevelKey(userUUID, courseUUID);
+        swapLock.readLock().lock();
+        try {
+            return pendingExp.getOrDefault(key, 0) + flushingExp.getOrDefault(key, 0);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Discards the pending exp of the user at the course, e.g. because the user left the course. Waits for a
+     * running flush, so the exp is not written afterwards.
+     *
+     * @param userUUID       the id of the user
+     * @param courseUUID     the id of the course
+     */
+    public void discard(UUID userUUID, UUID courseUUID) {
+        BloomLevelKey key = new BloomLevelKey(userUUID, courseUUID);
+        discardIf(key::equals);
+    }
+
+    /**
+     * Discards the pending exp of all users at the course, e.g. because the course was deleted. Waits for a
+     * running flush, so the exp is not written afterwards.
+     *
+     * @param courseUUID     the id of the course
+     */
+    public void discardCourse(UUID courseUUID) {
+        discardIf(key -> key.courseUUID().equals(courseUUID));
+    }
+
+    private void discardIf(Predicate<BloomLevelKey> discarded) {
+        synchronized (flushLock) {
+            swapLock.writeLock().lock();
+            try {
+                pendingExp.keySet().removeIf(discarded);
+                flushingExp = Map.of();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes all pending exp to the database within one transaction, with one multi-row upsert per chunk of
+     * bloomLevels. If writing fails, the exp is kept pending for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${gamification.bloom-level.write-behind.flush-interval-ms:1000}",
+            initialDelayString = "${gamification.bloom-level.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+
+        synchronized (flushLock) {
+            Map<BloomLevelKey, Integer> batch;
+            swapLock.writeLock().lock();
+            try {
+                if (pendingExp.isEmpty()) {
+                    return;
+                }
+                batch = pendingExp;
+                flushingExp = batch;
+                pendingExp = new ConcurrentHashMap<>();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            List<BloomLevelRepository.ExpGain> expGains = new ArrayList<>(batch.size());
+            batch.forEach((key, exp) -> {
+                if (exp != 0) {
+                    expGains.add(new BloomLevelRepository.ExpGain(key.userUUID(), key.courseUUID(), exp));
+                }
+            });
+            try {
+                transactionTemplate.executeWithoutResult(status -> bloomLevelRepository.addCollectedExp(expGains));
+            } catch (RuntimeException e) {
+                log.error("Could not write the exp of {} bloomLevels, keeping it pending", batch.size(), e);
+                swapLock.writeLock().lock();
+                try {
+                    batch.forEach((key, exp) -> pendingExp.merge(key, exp, Integer::sum));
+                    flushingExp = Map.of();
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+                return;
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                flushingExp = Map.of();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+}
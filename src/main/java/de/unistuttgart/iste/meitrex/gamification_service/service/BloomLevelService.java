@@ -25,6 +25,10 @@ public class BloomLevelService {
 
     private final ContentMetaDataRepository contentMetaDataRepository;
 
+    private final BloomLevelExpBuffer bloomLevelExpBuffer;
+
+    private final CourseSnapshotCache courseSnapshotCache;
+
 
     /**
      * Adds a new course, with the number of levels in the course.
@@ -44,6 +48,7 @@ public class BloomLevelService {
                 }
             }
             courseRepository.save(course);
+            courseSnapshotCache.invalidate(courseUUID);
             addUserToCourse(lecturerUUID, courseUUID);
         }
     }
@@ -56,15 +61,10 @@ public class BloomLevelService {
      * @return whether the course exists
      */
     public boolean deleteCourse(UUID courseUUID) {
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        if (courseEntity.isPresent()) {
-            CourseEntity course = courseEntity.get();
-            for (UUID user : course.getUserUUIDs()) {
-                bloomLevelRepository.deleteByUserUUIDAndCourseUUID(user, courseUUID);
-            }
-            for (UUID content : course.getContent()) {
-                contentMetaDataRepository.deleteById(content);
-            }
+        if (courseRepository.existsById(courseUUID)) {
+            bloomLevelExpBuffer.discardCourse(courseUUID);
+            bloomLevelRepository.deleteAllOfCourse(courseUUID);
+            contentMetaDataRepository.deleteAllOfCourse(courseUUID);
             return true;
         }
         return false;
@@ -77,15 +77,10 @@ public class BloomLevelService {
      * @param courseUUID     the id of the course
      */
     public void addUserToCourse(UUID userUUID, UUID courseUUID) {
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        if (courseEntity.isEmpty()) {
+        if (courseSnapshotCache.get(courseUUID).isEmpty()) {
             return;
         }
-        BloomLevelEntity bloomLevelEntity = new BloomLevelEntity();
-        bloomLevelEntity.setCourseUUID(courseUUID);
-        bloomLevelEntity.setUserUUID(userUUID);
-        bloomLevelEntity.setCollectedExp(0);
-        bloomLevelRepository.save(bloomLevelEntity);
+        bloomLevelRepository.insertIfAbsent(userUUID, courseUUID);
     }
 
     /**
@@ -95,9 +90,29 @@ public class BloomLevelService {
      * @param courseUUID     the id of the course
      */
     public void removeUserFromCourse(UUID userUUID, UUID courseUUID) {
+        bloomLevelExpBuffer.discard(userUUID, courseUUID);
         bloomLevelRepository.deleteByUserUUIDAndCourseUUID(userUUID, courseUUID);
     }
 
+    /**
+     * Rewards the user with exp at the course. If the write-behind mode is enabled, the exp is buffered and
+     * written later, otherwise it is added to the bloomLevel in the database immediately. A member without a
+     * bloomLevel at the course gets one.
+     *
+     * @param userUUID       the id of the user
+     * @param courseUUID     the id of the course
+     * @param exp            the rewarded exp
+     */
+    public void rewardExp(UUID userUUID, UUID courseUUID, int exp) {
+        if (bloomLevelExpBuffer.isEnabled()) {
+            bloomLevelExpBuffer.add(userUUID, courseUUID, exp);
+            return;
+        }
+        if (bloomLevelRepository.addCollectedExp(userUUID, courseUUID, exp).isEmpty()) {
+            log.warn("User {} is no member of course {} and collects no exp", userUUID, courseUUID);
+        }
+    }
+
     /**
      * Adds a new chapter to the course.
      *
@@ -118,6 +133,7 @@ public class BloomLevelService {
 
             course.addChapter(chapterUUID);
             courseRepository.save(course);
+            courseSnapshotCache.invalidate(courseUUID);
 
             return "Added chapter to course.";
         }
@@ -142,12 +158,10 @@ public class BloomLevelService {
                                 int skillPoints,
                                 List<SkillType> skillTypes) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        Optional<ContentMetaDataEntity> contentMetaData = contentMetaDataRepository.findById(contentUUID);
-        return courseEntity.isPresent()
-                && ! courseEntity.get().getContent().contains(contentUUID)
-                && courseEntity.get().getChapters().contains(chapterUUID)
-                && ! contentMetaData.isPresent()
+        Optional<CourseSnapshot> course = courseSnapshotCache.get(courseUUID);
+        return course.isPresent()
+                && course.get().containsChapter(chapterUUID)
+                && ! contentMetaDataRepository.existsById(contentUUID)
                 && skillPoints >= 0
                 && skillPoints <= 100
                 && skillTypes != null
@@ -161,21 +175,22 @@ public class BloomLevelService {
      * @param chapterUUID        the UUID of the chapter where the quiz will be added
      * @param courseUUID         the unique identifier of the course
      * @param quizUUID           the unique identifier of the quiz
+     * @param name               the name of the quiz
      * @param skillPoints        the skillPoints rewarded for the quiz
      * @param skillTypes         the skillTypes of the quiz
      *
      * @return indicates whether the quiz was created
      */
-    public boolean addQuiz(UUID chapterUUID, UUID courseUUID, UUID quizUUID, int skillPoints, List<SkillType> skillTypes) {
+    public boolean addQuiz(UUID chapterUUID, UUID courseUUID, UUID quizUUID, String name, int skillPoints, List<SkillType> skillTypes) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         if (validateAdd(courseUUID, quizUUID, chapterUUID, skillPoints, skillTypes)) {
-            CourseEntity course = courseEntity.get();
+            CourseEntity course = courseRepository.findById(courseUUID).get();
             if (! course.addContent(quizUUID, chapterUUID, skillPoints)) {
                 return false;
             }
             courseRepository.save(course);
-            saveContent(courseUUID, quizUUID, chapterUUID, skillPoints, skillTypes);
+            courseSnapshotCache.invalidate(courseUUID);
+            saveContent(courseUUID, quizUUID, chapterUUID, name, skillPoints, skillTypes);
             return true;
         }
 
@@ -188,21 +203,22 @@ public class BloomLevelService {
      * @param chapterUUID        the UUID of the chapter where the flashCardSet will be added
      * @param courseUUID         the unique identifier of the course
      * @param flashCardSetUUID   the unique identifier of the flashCardSet
+     * @param name               the name of the flashCardSet
      * @param skillPoints        the skillPoints rewarded for the flashCardSet
      * @param skillTypes         the skillTypes of the flashCardSet
      *
      * @return indicates whether the flashCardSet was created
      */
-    public boolean addFlashCardSet(UUID chapterUUID, UUID courseUUID, UUID flashCardSetUUID, int skillPoints, List<SkillType> skillTypes) {
+    public boolean addFlashCardSet(UUID chapterUUID, UUID courseUUID, UUID flashCardSetUUID, String name, int skillPoints, List<SkillType> skillTypes) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         if (validateAdd(courseUUID, flashCardSetUUID, chapterUUID, skillPoints, skillTypes)) {
-            CourseEntity course = courseEntity.get();
+            CourseEntity course = courseRepository.findById(courseUUID).get();
             if (! course.addContent(flashCardSetUUID, chapterUUID, skillPoints)) {
                 return false;
             }
             courseRepository.save(course);
-            saveContent(courseUUID, flashCardSetUUID, chapterUUID, skillPoints, skillTypes);
+            courseSnapshotCache.invalidate(courseUUID);
+            saveContent(courseUUID, flashCardSetUUID, chapterUUID, name, skillPoints, skillTypes);
             return true;
         }
 
@@ -226,12 +242,12 @@ public class BloomLevelService {
                                  int skillPoints,
                                  List<SkillType> skillTypes) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
+        Optional<CourseSnapshot> course = courseSnapshotCache.get(courseUUID);
         Optional<ContentMetaDataEntity> contentMetaData = contentMetaDataRepository.findById(contentUUID);
-        return courseEntity.isPresent()
-                && courseEntity.get().getContent().contains(contentUUID)
-                && courseEntity.get().getChapters().contains(chapterUUID)
+        return course.isPresent()
+                && course.get().containsChapter(chapterUUID)
                 && contentMetaData.isPresent()
+                && courseUUID.equals(contentMetaData.get().getCourseUUID())
                 && skillPoints >= 0
                 && skillPoints <= 100
                 && skillTypes != null
@@ -245,17 +261,22 @@ public class BloomLevelService {
      * @param courseUUID      the id of the course
      * @param contentUUID     the id of the content
      * @param chapterUUID     the id of the chapter
+     * @param name            the name of the content, which is rendered into the descriptions of its badges and quest
      * @param skillPoints     the skillPoints rewarded for the content
      * @param skillTypes      the skillTypes of the content
      *
      * @return indicates whether the content is updated successfully. if content does not exist, false is returned.
      */
-    public boolean updateContent(UUID courseUUID, UUID contentUUID, UUID chapterUUID, int skillPoints, List<SkillType> skillTypes) {
+    public boolean updateContent(UUID courseUUID, UUID contentUUID, UUID chapterUUID, String name, int skillPoints, List<SkillType> skillTypes) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         if (validateEdit(courseUUID, contentUUID, chapterUUID, skillPoints, skillTypes)) {
-            removeContent(courseUUID, chapterUUID, contentUUID);
-            return saveContent(courseUUID, contentUUID, chapterUUID, skillPoints, skillTypes);
+            // the content is removed from the chapter it is stored in, which is not the given one, if it moved
+            ContentMetaDataEntity contentMetaData = contentMetaDataRepository.findById(contentUUID).get();
+            UUID storedChapterUUID = contentMetaData.getChapterUUID() != null
+                    ? contentMetaData.getChapterUUID()
+                    : chapterUUID;
+            removeContent(courseUUID, storedChapterUUID, contentUUID);
+            return saveContent(courseUUID, contentUUID, chapterUUID, name, skillPoints, skillTypes);
         }
         return false;
 
@@ -267,23 +288,37 @@ public class BloomLevelService {
      * @param courseUUID      the id of the course
      * @param contentUUID     the id of the content
      * @param chapterUUID     the id of the chapter
+     * @param name            the name of the content
      * @param skillPoints     the skillPoints rewarded for the content
      * @param skillTypes      the skillTypes of the content
      *
      * @return indicates whether the content is saved successfully
      */
-    public boolean saveContent(UUID courseUUID, UUID contentUUID, UUID chapterUUID, int skillPoints, List<SkillType> skillTypes) {
+    public boolean saveContent(UUID courseUUID, UUID contentUUID, UUID chapterUUID, String name, int skillPoints, List<SkillType> skillTypes) {
 
         Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         SkillType maxSkillType = skillTypes.stream()
                 .max(Comparator.comparingInt(Enum::ordinal))
                 .get();
+        // adding content does not change the chapters, so the cached level of the chapter is still valid
+        int level = courseSnapshotCache.get(courseUUID)
+                .map(courseSnapshot -> courseSnapshot.getLevelOfChapter(chapterUUID))
+                .orElse(-1);
 
         CourseEntity course = courseEntity.get();
         course.addContent(contentUUID);
         courseRepository.save(course);
-
-        ContentMetaDataEntity contentMetaData = new ContentMetaDataEntity(contentUUID, skillPoints, maxSkillType);
+        courseSnapshotCache.invalidate(courseUUID);
+
+        ContentMetaDataEntity contentMetaData = ContentMetaDataEntity.builder()
+                .contentUUID(contentUUID)
+                .name(name)
+                .skillPoints(skillPoints)
+                .skillType(maxSkillType)
+                .courseUUID(courseUUID)
+                .chapterUUID(chapterUUID)
+                .level(level)
+                .build();
         contentMetaDataRepository.save(contentMetaData);
         return true;
 
@@ -296,17 +331,16 @@ public class BloomLevelService {
      * @param chapterUUID    the id of the chapter
      */
     public int getLevelOfChapter(UUID chapterUUID, UUID courseUUID) {
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        if (courseEntity.isEmpty()
-                || courseEntity.get().getChapters() == null
-                || courseEntity.get().getChapters().isEmpty()) {
+        Optional<CourseSnapshot> course = courseSnapshotCache.get(courseUUID);
+        if (course.isEmpty() || course.get().getChapters().isEmpty()) {
             return -1;
         }
-        return courseEntity.get().getLevelOfChapter(chapterUUID) + 1;
+        return course.get().getLevelOfChapter(chapterUUID) + 1;
     }
 
     /**
-     * Decreases the required exp for the chapter of the content.
+     * Decreases the required exp for the chapter of the content. The content is removed from the chapter stored
+     * on its metadata. Content created before the chapter was stored, is removed from the given chapter.
      *
      * @param courseUUID       the id of the course
      * @param chapterUUID      the UUID of the chapter of the removed content
@@ -315,86 +349,28 @@ public class BloomLevelService {
      * @return indicates whether the content could be removed successfully.
      */
     public boolean removeContent(UUID courseUUID, UUID chapterUUID, UUID contentUUID) {
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         Optional<ContentMetaDataEntity> contentMetaDataEntity = contentMetaDataRepository.findById(contentUUID);
+        Optional<CourseSnapshot> courseSnapshot = courseSnapshotCache.get(courseUUID);
 
         if (contentMetaDataEntity.isPresent()
-                && courseEntity.isPresent()
-                && courseEntity.get().getContent().contains(contentUUID)
-                && courseEntity.get().getChapters().contains(chapterUUID)) {
-            CourseEntity course = courseEntity.get();
-            course.removeContent(contentUUID, chapterUUID, contentMetaDataEntity.get().getSkillPoints());
+                && courseUUID.equals(contentMetaDataEntity.get().getCourseUUID())
+                && courseSnapshot.isPresent()
+                && courseSnapshot.get().containsChapter(chapterUUID)) {
+            ContentMetaDataEntity contentMetaData = contentMetaDataEntity.get();
+            int level = contentMetaData.getLevel() != null
+                    ? contentMetaData.getLevel()
+                    : courseSnapshot.get().getLevelOfChapter(chapterUUID);
+
+            CourseEntity course = courseRepository.findById(courseUUID).get();
+            course.removeContent(contentUUID, level, contentMetaData.getSkillPoints());
             courseRepository.save(course);
+            courseSnapshotCache.invalidate(courseUUID);
             contentMetaDataRepository.deleteById(contentUUID);
             return true;
         }
         return false;
     }
 
-    /**
-     * Validates whether the input is correct for finishing content.
-     *
-     * @param courseUUID     the unique identifier of the course
-     * @param userUUID       the unique identifier of the user
-     * @param chapterUUID    the id of the chapter of the finished content
-     * @param contentUUID    the id of the content
-     * @param correctAnswers the number of correct answers given by the user
-     * @param totalAnswers   the total number of questions in the content
-     *
-     * @return indicates whether the finishing is valid
-     */
-    private boolean validateFinish(UUID courseUUID,
-                                  UUID userUUID,
-                                  UUID chapterUUID,
-                                  UUID contentUUID,
-                                  int correctAnswers,
-                                  int totalAnswers) {
-
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        BloomLevelEntity bloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(userUUID, courseUUID);
-        Optional<ContentMetaDataEntity> contentMetaData = contentMetaDataRepository.findById(contentUUID);
-        return courseEntity.isPresent()
-                && courseEntity.get().getUserUUIDs().contains(userUUID)
-                && courseEntity.get().getContent().contains(contentUUID)
-                && courseEntity.get().getChapters().contains(chapterUUID)
-                && bloomLevel != null
-                && contentMetaData.isPresent()
-                && correctAnswers <= totalAnswers
-                && correctAnswers >= 0;
-
-    }
-
-    /**
-     * Grants a reward to a user for successfully finishing content.
-     *
-     * @param courseUUID     the unique identifier of the course
-     * @param userUUID       the unique identifier of the user
-     * @param chapterUUID    the id of the chapter of the quiz
-     * @param contentUUID    the id of the quiz
-     * @param correctAnswers the number of correct answers given by the user
-     * @param totalAnswers   the total number of questions in the quiz
-     *
-     * @return indicates whether the finishing is valid
-     */
-    public boolean grantRewardToUserForFinishingContent(UUID courseUUID,
-                                                     UUID userUUID,
-                                                     UUID chapterUUID,
-                                                     UUID contentUUID,
-                                                     int correctAnswers,
-                                                     int totalAnswers) {
-
-        BloomLevelEntity bloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(userUUID, courseUUID);
-        Optional<ContentMetaDataEntity> contentMetaData = contentMetaDataRepository.findById(contentUUID);
-
-        if (! validateFinish(courseUUID, userUUID, chapterUUID, contentUUID, correctAnswers, totalAnswers)) {
-            return false;
-        }
-
-        bloomLevel.addExp((int) contentMetaData.get().rewardOfFinishingContent(correctAnswers, totalAnswers));
-        bloomLevelRepository.save(bloomLevel);
-        return true;
-    }
-
     /**
      * Retrieves the current BloomLevel of a user for a specific course.
      *
@@ -405,18 +381,18 @@ public class BloomLevelService {
      */
     public BloomLevel getUsersBloomLevel(UUID userUUID, UUID courseUUID) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        if (courseEntity.isEmpty()) {
+        Optional<CourseSnapshot> courseSnapshot = courseSnapshotCache.get(courseUUID);
+        if (courseSnapshot.isEmpty()) {
             return new BloomLevel();
         }
-        CourseEntity course = courseEntity.get();
+        CourseSnapshot course = courseSnapshot.get();
 
         BloomLevelEntity bloomLevelEntity = bloomLevelRepository.findByUserUUIDAndCourseUUID(userUUID, courseUUID);
         if (bloomLevelEntity == null) {
             return new BloomLevel();
         }
 
-        int collectedExp = bloomLevelEntity.getCollectedExp();
+        int collectedExp = bloomLevelEntity.getCollectedExp() + bloomLevelExpBuffer.getPendingExp(userUUID, courseUUID);
         BloomLevel bloomLevel = new BloomLevel();
         bloomLevel.setTotalExp(collectedExp);
         int level = course.calculateLevelForExp(collectedExp);
@@ -0,0 +1,409 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.*;
+import de.unistuttgart.iste.meitrex.generated.dto.BadgeContentType;
+import de.unistuttgart.iste.meitrex.generated.dto.ContentCompletionInput;
+import de.unistuttgart.iste.meitrex.generated.dto.ContentCompletionResult;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class ContentCompletionService {
+
+    private final CourseMembershipRepository courseMembershipRepository;
+    private final BloomLevelService bloomLevelService;
+    private final ContentMetaDataRepository contentMetaDataRepository;
+    private final BadgeCatalog badgeCatalog;
+    private final UserBadgeBulkWriter userBadgeBulkWriter;
+    private final UserBadgeBitsetRepository userBadgeBitsetRepository;
+    private final QuestChainRepository questChainRepository;
+    private final UserQuestChainRepository userQuestChainRepository;
+
+    @Value("${gamification.badges.storage:sparse}")
+    private BadgeService.UserBadgeStorage userBadgeStorage;
+
+    /**
+     * Everything that is needed to process the completions of one course, loaded exactly once.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class CourseCompletionContext {
+
+        private final Map<UUID, ContentMetaDataEntity> contentMetaData;
+
+        private final Map<UUID, List<BadgeDefinition>> badgesByContent;
+
+        private final Map<UUID, UserBadgeBitsetEntity> userBadgeBitsetsByUser;
+
+        /**
+         * The positions of the quests of the completed content in the quest chain of the course.
+         */
+        private final Map<UUID, QuestChainRepository.QuestPositionView> questPositionsByContent;
+
+        private final Map<UUID, UserQuestChainEntity> userQuestChainsByUser;
+
+    }
+
+    /**
+     * The user finishes a quiz or a flashCardSet. The user is rewarded with experience points, the badges of the
+     * content are marked as achieved depending on the percentage of correct answers and the current quest of the
+     * user is finished, if it points to the content.
+     *
+     * @param userUUID         the id of the user
+     * @param courseUUID       the id of the course, which contains the content
+     * @param chapterUUID      the id of the chapter, which contains the content
+     * @param contentUUID      the id of the finished quiz or flashCardSet
+     * @param contentType      whether the content is expected to be a quiz or a flashCardSet
+     * @param correctAnswers   the number of correct answers, the user got for this content
+     * @param totalAnswers     the total number of questions in this content
+     *
+     * @return indicates whether the finishing is valid, which it is not if the content is of another type
+     */
+    public boolean finishContent(UUID userUUID,
+                                 UUID courseUUID,
+                                 UUID chapterUUID,
+                                 UUID contentUUID,
+                                 BadgeContentType contentType,
+                                 int correctAnswers,
+                                 int totalAnswers) {
+
+        // the badges of the content tell, whether it is a quiz or a flashCardSet
+        List<BadgeDefinition> badges = badgeCatalog.getBadgesOfContent(courseUUID, contentUUID);
+        if (! badges.isEmpty() && (badges.get(0).getQuizUUID() != null) != (contentType == BadgeContentType.QUIZ)) {
+            return false;
+        }
+
+        ContentCompletionInput completion = new ContentCompletionInput();
+        completion.setUserUUID(userUUID);
+        completion.setCourseUUID(courseUUID);
+        completion.setChapterUUID(chapterUUID);
+        completion.setContentUUID(contentUUID);
+        completion.setCorrectAnswers(correctAnswers);
+        completion.setTotalAnswers(totalAnswers);
+
+        return finishCourseCompletions(courseUUID, List.of(completion)).get(0).getSuccess();
+
+    }
+
+    /**
+     * Processes a batch of completions. The completions are grouped by course and every course is loaded and
+     * written once, while the completions of a course are applied in the order they were submitted.
+     *
+     * @param completions     the completions of quizzes and flashCardSets
+     *
+     * @return the result for every completion, in the order of the submitted completions, together with the
+     *         badges the completion unlocked
+     */
+    public List<ContentCompletionResult> finishContentBatch(List<ContentCompletionInput> completions) {
+
+        Map<UUID, List<Integer>> completionIndicesByCourse = new LinkedHashMap<>();
+        for (int i = 0; i < completions.size(); i++) {
+            completionIndicesByCourse
+                    .computeIfAbsent(completions.get(i).getCourseUUID(), courseUUID -> new ArrayList<>())
+                    .add(i);
+        }
+
+        ContentCompletionResult[] results = new ContentCompletionResult[completions.size()];
+        for (Map.Entry<UUID, List<Integer>> courseCompletions : completionIndicesByCourse.entrySet()) {
+            List<Integer> indices = courseCompletions.getValue();
+            List<ContentCompletionResult> courseResults = finishCourseCompletions(courseCompletions.getKey(),
+                    indices.stream().map(completions::get).toList());
+            for (int i = 0; i < indices.size(); i++) {
+                results[indices.get(i)] = courseResults.get(i);
+            }
+        }
+        return Arrays.asList(results);
+
+    }
+
+    /**
+     * Validates and applies the completions of a single course.
+     *
+     * @param courseUUID      the id of the course
+     * @param completions     the completions, which all refer to the course
+     *
+     * @return for every completion, whether it was valid and applied and which badges it unlocked
+     */
+    private List<ContentCompletionResult> finishCourseCompletions(UUID courseUUID,
+                                                                  List<ContentCompletionInput> completions) {
+
+        List<ContentCompletionResult> results = new ArrayList<>(completions.size());
+        for (ContentCompletionInput completion : completions) {
+            ContentCompletionResult result = new ContentCompletionResult();
+            result.setUserUUID(completion.getUserUUID());
+            result.setContentUUID(completion.getContentUUID());
+            result.setSuccess(false);
+            result.setUnlockedBadgeUUIDs(new ArrayList<>());
+            results.add(result);
+        }
+
+        // only members of existing courses are found, so the course itself does not have to be loaded
+        Set<UUID> members = courseMembershipRepository.findUserUUIDsByCourseUUIDAndUserUUIDIn(courseUUID,
+                completions.stream().map(ContentCompletionInput::getUserUUID).collect(Collectors.toSet()));
+        List<ContentCompletionInput> candidates = completions.stream()
+                .filter(completion -> isValidForCourse(members, completion))
+                .toList();
+        if (candidates.isEmpty()) {
+            return results;
+        }
+
+        CourseCompletionContext context = loadCourseCompletionContext(courseUUID, candidates);
+
+        Map<UUID, Integer> expByUser = new HashMap<>();
+        // the index of the first completion, that achieves the userBadge in this batch
+        Map<UserBadgeBulkWriter.UserBadgeKey, Integer> achievingCompletions = new LinkedHashMap<>();
+        Set<UserBadgeBitsetEntity> changedUserBadgeBitsets = new HashSet<>();
+        Set<UserQuestChainEntity> progressedUserQuestChains = new HashSet<>();
+
+        for (int i = 0; i < completions.size(); i++) {
+            ContentCompletionInput completion = completions.get(i);
+            ContentMetaDataEntity contentMetaData = context.getContentMetaData().get(completion.getContentUUID());
+            if (! isValidForCourse(members, completion)
+                    || contentMetaData == null
+                    || ! contentMetaData.isPlacedIn(courseUUID, completion.getChapterUUID())) {
+                continue;
+            }
+
+            int correctAnswers = completion.getCorrectAnswers();
+            int totalAnswers = completion.getTotalAnswers();
+            int percentage = totalAnswers > 0 ? (correctAnswers * 100) / totalAnswers : 0;
+
+            int exp = (int) contentMetaData.rewardOfFinishingContent(correctAnswers, totalAnswers);
+            expByUser.merge(completion.getUserUUID(), exp, Integer::sum);
+
+            List<UUID> unlockedBadgeUUIDs = results.get(i).getUnlockedBadgeUUIDs();
+            if (userBadgeStorage == BadgeService.UserBadgeStorage.BITSET) {
+                achieveBadgeBits(context, completion, percentage, unlockedBadgeUUIDs);
+                if (! unlockedBadgeUUIDs.isEmpty()) {
+                    changedUserBadgeBitsets.add(context.getUserBadgeBitsetsByUser().get(completion.getUserUUID()));
+                }
+            } else {
+                collectAchievedBadges(context, completion, percentage, i, achievingCompletions);
+            }
+
+            UserQuestChainEntity userQuestChain = finishQuestIfCurrent(context, completion, percentage);
+            if (userQuestChain != null) {
+                progressedUserQuestChains.add(userQuestChain);
+            }
+
+            results.get(i).setSuccess(true);
+        }
+
+        // the bulk updates below clear the persistence context, so the loaded entities are saved first
+        userQuestChainRepository.saveAll(progressedUserQuestChains);
+        userBadgeBitsetRepository.saveAll(changedUserBadgeBitsets);
+        for (Map.Entry<UUID, Integer> userExp : expByUser.entrySet()) {
+            bloomLevelService.rewardExp(userExp.getKey(), courseUUID, userExp.getValue());
+        }
+
+        // only the userBadges the write actually changed are unlocked, not the ones a concurrent batch achieved
+        Set<UserBadgeBulkWriter.UserBadgeKey> unlocked = userBadgeBulkWriter.achieve(achievingCompletions.keySet());
+        for (Map.Entry<UserBadgeBulkWriter.UserBadgeKey, Integer> achievingCompletion : achievingCompletions.entrySet()) {
+            if (unlocked.contains(achievingCompletion.getKey())) {
+                results.get(achievingCompletion.getValue()).getUnlockedBadgeUUIDs()
+                        .add(achievingCompletion.getKey().badgeUUID());
+            }
+        }
+
+        return results;
+
+    }
+
+    /**
+     * Checks the parts of a completion, that can be validated without the content. The placement of the content
+     * in the course and chapter is checked with its metadata.
+     *
+     * @param members        the users of the completions, who are members of the course
+     * @param completion     the completion
+     *
+     * @return indicates whether the completion is valid for the course
+     */
+    private boolean isValidForCourse(Set<UUID> members, ContentCompletionInput completion) {
+        return completion.getCorrectAnswers() <= completion.getTotalAnswers()
+                && completion.getCorrectAnswers() >= 0
+                && members.contains(completion.getUserUUID());
+    }
+
+    /**
+     * Loads all the entities the completions of a course need, with one query per entity type. The badges are taken
+     * from the {@link BadgeCatalog}.
+     *
+     * @param courseUUID     the id of the course
+     * @param completions    the completions that are valid for the course
+     *
+     * @return the loaded context
+     */
+    private CourseCompletionContext loadCourseCompletionContext(UUID courseUUID, List<ContentCompletionInput> completions) {
+
+        Set<UUID> userUUIDs = new HashSet<>();
+        Set<UUID> contentUUIDs = new HashSet<>();
+        for (ContentCompletionInput completion : completions) {
+            userUUIDs.add(completion.getUserUUID());
+            contentUUIDs.add(completion.getContentUUID());
+        }
+
+        Map<UUID, ContentMetaDataEntity> contentMetaData = new HashMap<>();
+        for (ContentMetaDataEntity metaData : contentMetaDataRepository.findAllById(contentUUIDs)) {
+            contentMetaData.put(metaData.getContentUUID(), metaData);
+        }
+
+        Map<UUID, List<BadgeDefinition>> badgesByContent = new HashMap<>();
+        for (UUID contentUUID : contentUUIDs) {
+            badgesByContent.put(contentUUID, badgeCatalog.getBadgesOfContent(courseUUID, contentUUID));
+        }
+
+        Map<UUID, UserBadgeBitsetEntity> userBadgeBitsetsByUser = new HashMap<>();
+        if (userBadgeStorage == BadgeService.UserBadgeStorage.BITSET) {
+            userBadgeBitsetsByUser = loadUserBadgeBitsets(courseUUID, userUUIDs);
+        }
+
+        // the quest chain is locked, so its quests are not moved or rebalanced while their positions are compared
+        // with the progress of the users, and only the positions of the completed content are read
+        questChainRepository.findByCourseUUIDForUpdate(courseUUID);
+        Map<UUID, QuestChainRepository.QuestPositionView> questPositionsByContent = new HashMap<>();
+        for (QuestChainRepository.QuestPositionView questPosition :
+                questChainRepository.findQuestPositions(courseUUID, contentUUIDs)) {
+            questPositionsByContent.put(questPosition.getQuizUUID() != null
+                    ? questPosition.getQuizUUID()
+                    : questPosition.getFlashCardSetUUID(), questPosition);
+        }
+        Map<UUID, UserQuestChainEntity> userQuestChainsByUser = new HashMap<>();
+        if (! questPositionsByContent.isEmpty()) {
+            for (UserQuestChainEntity userQuestChain :
+                    userQuestChainRepository.findByCourseUUIDAndUserUUIDIn(courseUUID, userUUIDs)) {
+                userQuestChainsByUser.put(userQuestChain.getUserUUID(), userQuestChain);
+            }
+        }
+
+        return new CourseCompletionContext(contentMetaData, badgesByContent,
+                userBadgeBitsetsByUser, questPositionsByContent, userQuestChainsByUser);
+
+    }
+
+    /**
+     * Loads and locks the userBadge bitsets of the users at the course. Missing bitsets are created first. The
+     * bitsets are not read before in the transaction, so they are loaded from the locked rows, and comparing a bit
+     * before and after setting it tells, whether this batch unlocked the badge.
+     *
+     * @param courseUUID     the id of the course
+     * @param userUUIDs      the ids of the users
+     *
+     * @return the bitsets by the id of their user
+     */
+    private Map<UUID, UserBadgeBitsetEntity> loadUserBadgeBitsets(UUID courseUUID, Set<UUID> userUUIDs) {
+
+        Map<UUID, UserBadgeBitsetEntity> userBadgeBitsetsByUser = new HashMap<>();
+        for (UserBadgeBitsetEntity bitset : userBadgeBitsetRepository.findForUpdate(courseUUID, userUUIDs)) {
+            userBadgeBitsetsByUser.put(bitset.getUserUUID(), bitset);
+        }
+
+        Set<UUID> missingUserUUIDs = new HashSet<>(userUUIDs);
+        missingUserUUIDs.removeAll(userBadgeBitsetsByUser.keySet());
+        if (! missingUserUUIDs.isEmpty()) {
+            for (UUID userUUID : missingUserUUIDs) {
+                userBadgeBitsetRepository.insertIfAbsent(courseUUID, userUUID);
+            }
+            for (UserBadgeBitsetEntity bitset : userBadgeBitsetRepository.findForUpdate(courseUUID, missingUserUUIDs)) {
+                userBadgeBitsetsByUser.put(bitset.getUserUUID(), bitset);
+            }
+        }
+        return userBadgeBitsetsByUser;
+
+    }
+
+    /**
+     * Sets the bits of the badges of the content, that the user achieved with the percentage of correct answers,
+     * in the bitset of the user.
+     *
+     * @param context        the context of the course
+     * @param completion     the completion
+     * @param percentage           the percentage of correct answers
+     * @param unlockedBadgeUUIDs   the ids of the badges achieved for the first time, the new ones are added to it
+     */
+    private void achieveBadgeBits(CourseCompletionContext context,
+                                  ContentCompletionInput completion,
+                                  int percentage,
+                                  List<UUID> unlockedBadgeUUIDs) {
+
+        UserBadgeBitsetEntity bitset = context.getUserBadgeBitsetsByUser().get(completion.getUserUUID());
+        for (BadgeDefinition badge : context.getBadgesByContent().getOrDefault(completion.getContentUUID(), List.of())) {
+            int bit = badge.getAchievementBit();
+            if (percentage >= badge.getPassingPercentage() && bit >= 0 && bitset.achieve(bit)) {
+                unlockedBadgeUUIDs.add(badge.getBadgeUUID());
+            }
+        }
+
+    }
+
+    /**
+     * Collects the userBadges of the content, that the user achieved with the percentage of correct answers. The
+     * first completion of the batch, that achieves a userBadge, gets it reported as unlocked, if the write of the
+     * batch actually changes the userBadge.
+     *
+     * @param context                the context of the course
+     * @param completion             the completion
+     * @param percentage             the percentage of correct answers
+     * @param completionIndex        the index of the completion in the batch
+     * @param achievingCompletions   the index of the first achieving completion by userBadge, the new ones are
+     *                               added to it
+     */
+    private void collectAchievedBadges(CourseCompletionContext context,
+                                       ContentCompletionInput completion,
+                                       int percentage,
+                                       int completionIndex,
+                                       Map<UserBadgeBulkWriter.UserBadgeKey, Integer> achievingCompletions) {
+
+        for (BadgeDefinition badge : context.getBadgesByContent().getOrDefault(completion.getContentUUID(), List.of())) {
+            if (percentage >= badge.getPassingPercentage()) {
+                achievingCompletions.putIfAbsent(
+                        new UserBadgeBulkWriter.UserBadgeKey(completion.getUserUUID(), badge.getBadgeUUID()),
+                        completionIndex);
+            }
+        }
+
+    }
+
+    /**
+     * Finishes the current quest of the user, if it points to the content and the user got at least
+     * {@link QuestService#passingPercentage} of the answers correct.
+     *
+     * @param context        the context of the course
+     * @param completion     the completion
+     * @param percentage     the percentage of correct answers
+     *
+     * @return the progressed userQuestChain or null, if the quest was not finished
+     */
+    private UserQuestChainEntity finishQuestIfCurrent(CourseCompletionContext context,
+                                                      ContentCompletionInput completion,
+                                                      int percentage) {
+
+        UserQuestChainEntity userQuestChain = context.getUserQuestChainsByUser().get(completion.getUserUUID());
+        QuestChainRepository.QuestPositionView questPosition =
+                context.getQuestPositionsByContent().get(completion.getContentUUID());
+        if (userQuestChain == null || questPosition == null || percentage < QuestService.passingPercentage) {
+            return null;
+        }
+
+        // the quest is the current one, if the user finished the quest before it, but not the quest itself
+        int progressPosition = userQuestChain.getProgressPosition();
+        if (questPosition.getPreviousPosition() < progressPosition && progressPosition <= questPosition.getPosition()) {
+            userQuestChain.finishQuest(questPosition.getPosition());
+            return userQuestChain;
+        }
+        return null;
+
+    }
+
+}
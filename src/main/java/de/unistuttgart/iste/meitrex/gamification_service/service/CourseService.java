@@ -3,6 +3,7 @@ package de.unistuttgart.iste.meitrex.gamification_service.service;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BadgeEntity;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.CourseEntity;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.mapper.BadgeMapper;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.CourseMembershipRepository;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.CourseRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,10 @@ public class CourseService {
 
     private final CourseRepository courseRepository;
 
+    private final CourseMembershipRepository courseMembershipRepository;
+
+    private final CourseSnapshotCache courseSnapshotCache;
+
     /**
      * Creates a new course and saves it in the repository, adds the creator of the course to it.
      *
@@ -33,12 +38,14 @@ public class CourseService {
             return false;
         }
 
-        CourseEntity courseEntity = new CourseEntity(courseUUID,
-                new HashSet<UUID>(),
-                new ArrayList<Integer>(),
-                new LinkedList<UUID>(),
-                new HashSet<UUID>());
+        CourseEntity courseEntity = CourseEntity.builder()
+                .courseUUID(courseUUID)
+                .requiredExpPerLevel(new ArrayList<Integer>())
+                .chapters(new LinkedList<UUID>())
+                .content(new HashSet<UUID>())
+                .build();
         courseRepository.save(courseEntity);
+        courseSnapshotCache.invalidate(courseUUID);
 
         addUserToCourse(lecturerUUID, courseUUID);
 
@@ -51,7 +58,9 @@ public class CourseService {
      * @param courseUUID     the id of the course which shall be deleted
      */
     public void deleteCourse(UUID courseUUID) {
+        courseMembershipRepository.deleteByCourseUUID(courseUUID);
         courseRepository.deleteById(courseUUID);
+        courseSnapshotCache.invalidate(courseUUID);
     }
 
     /**
@@ -64,19 +73,11 @@ public class CourseService {
      */
     public boolean addUserToCourse(UUID userUUID, UUID courseUUID) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        if (courseEntity.isPresent()) {
-            CourseEntity course = courseEntity.get();
-
-            if (course.getUserUUIDs().contains(userUUID)) {
-                return false;
-            }
-
-            course.addUser(userUUID);
-            courseRepository.save(course);
-            return true;
+        if (! courseRepository.existsById(courseUUID)
+                || courseMembershipRepository.insertIfAbsent(courseUUID, userUUID) == 0) {
+            return false;
         }
-        return false;
+        return true;
 
     }
 
@@ -89,11 +90,7 @@ public class CourseService {
      */
     public Set<UUID> getCoursesUsers(UUID courseUUID) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        if (courseEntity.isPresent()) {
-            return courseEntity.get().getUserUUIDs();
-        }
-        return new HashSet<UUID>();
+        return courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID);
 
     }
 
@@ -107,18 +104,7 @@ public class CourseService {
      */
     public boolean removeUserFromCourse(UUID userUUID, UUID courseUUID) {
 
-        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
-        if (courseEntity.isEmpty()) {
-            return false;
-        }
-
-        CourseEntity course = courseEntity.get();
-        if (!course.getUserUUIDs().contains(userUUID)) {
-            return false;
-        }
-        course.removeUser(userUUID);
-        courseRepository.save(course);
-        return true;
+        return courseMembershipRepository.deleteByCourseUUIDAndUserUUID(courseUUID, userUUID) > 0;
 
     }
 
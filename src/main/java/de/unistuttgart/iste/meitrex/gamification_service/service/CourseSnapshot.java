@@ -0,0 +1,96 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.CourseEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.LevelThresholds;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.*;
+
+/**
+ * Immutable read-only view of a course, which is shared between requests by the {@link CourseSnapshotCache}.
+ * Contains everything the read paths need from the course, except its members.
+ */
+@Getter
+@ToString
+public final class CourseSnapshot {
+
+    private final UUID courseUUID;
+
+    private final List<UUID> chapters;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final Map<UUID, Integer> levelOfChapter;
+
+    private final List<Integer> requiredExpPerLevel;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final LevelThresholds levelThresholds;
+
+    private final Set<UUID> content;
+
+    private CourseSnapshot(CourseEntity course) {
+        this.courseUUID = course.getCourseUUID();
+        this.chapters = course.getChapters() == null ? List.of() : List.copyOf(course.getChapters());
+        this.requiredExpPerLevel = course.getRequiredExpPerLevel() == null
+                ? List.of()
+                : List.copyOf(course.getRequiredExpPerLevel());
+        this.levelThresholds = new LevelThresholds(requiredExpPerLevel);
+        this.content = course.getContent() == null ? Set.of() : Set.copyOf(course.getContent());
+
+        Map<UUID, Integer> levels = new HashMap<>();
+        for (int i = chapters.size() - 1; i >= 0; i--) {
+            // iterate backwards, so duplicate chapters keep their first level like List.indexOf
+            levels.put(chapters.get(i), i);
+        }
+        this.levelOfChapter = Collections.unmodifiableMap(levels);
+    }
+
+    /**
+     * Creates a snapshot of the current state of the course.
+     *
+     * @param course     the course entity
+     *
+     * @return the snapshot
+     */
+    public static CourseSnapshot of(CourseEntity course) {
+        return new CourseSnapshot(course);
+    }
+
+    public boolean containsChapter(UUID chapterUUID) {
+        return levelOfChapter.containsKey(chapterUUID);
+    }
+
+    /**
+     * @param chapterUUID     the id of the chapter
+     *
+     * @return the index of the chapter in the course, -1 if the course does not contain the chapter
+     */
+    public int getLevelOfChapter(UUID chapterUUID) {
+        return levelOfChapter.getOrDefault(chapterUUID, -1);
+    }
+
+    public int calculateLevelForExp(int exp) {
+        return levelThresholds.levelForExp(exp);
+    }
+
+    public int calculateRemainingExpForCurrentLevel(int exp) {
+        if (exp == 0) {
+            return 0;
+        }
+        return levelThresholds.remainingExpForCurrentLevel(exp);
+    }
+
+    public int getRequiredExpOfLevel(int level) {
+        if (requiredExpPerLevel.isEmpty() || level < 0) {
+            return 0;
+        } else if (level >= requiredExpPerLevel.size()) {
+            return Integer.MAX_VALUE;
+        }
+        return requiredExpPerLevel.get(level);
+    }
+
+}
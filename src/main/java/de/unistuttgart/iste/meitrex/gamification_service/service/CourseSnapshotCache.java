@@ -0,0 +1,156 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.CourseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of {@link CourseSnapshot}s, which evicts the least recently used course when it is full. A cached
+ * course is loaded again after {@code gamification.course-cache.time-to-live-seconds}, so the changes of other
+ * instances are picked up.
+ * <p>
+ * Every mutation of a course has to call {@link #invalidate(UUID)}. The course is evicted right away and again after
+ * the transaction of the mutation completed, and the transaction itself bypasses the cache for this course, so
+ * neither the mutating transaction nor other transactions ever cache or read uncommitted state.
+ */
+@Slf4j
+@Component
+public class CourseSnapshotCache {
+
+    /**
+     * A snapshot together with the time it was loaded at.
+     *
+     * @param snapshot          the snapshot of the course
+     * @param loadedAtNanos     the {@link System#nanoTime()} the course was loaded at
+     */
+    private record LoadedSnapshot(CourseSnapshot snapshot, long loadedAtNanos) {
+    }
+
+    private final CourseRepository courseRepository;
+
+    private final Map<UUID, LoadedSnapshot> snapshots;
+
+    private final long timeToLiveNanos;
+
+    /**
+     * Incremented by every invalidation, so snapshots loaded concurrently to an invalidation are not cached.
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    public CourseSnapshotCache(CourseRepository courseRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${gamification.course-cache.max-size:1000}") int maxSize,
+                               @Value("${gamification.course-cache.time-to-live-seconds:300}") long timeToLiveSeconds) {
+        this.courseRepository = courseRepository;
+        this.snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, LoadedSnapshot> eldest) {
+                return size() > maxSize;
+            }
+        });
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+        this.hits = Counter.builder("gamification.course.cache.requests")
+                .tag("result", "hit")
+                .description("Course snapshot lookups served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gamification.course.cache.requests")
+                .tag("result", "miss")
+                .description("Course snapshot lookups loaded from the database")
+                .register(meterRegistry);
+        Gauge.builder("gamification.course.cache.size", snapshots, Map::size)
+                .description("Number of cached course snapshots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retrieves the snapshot of the course, from the cache if possible.
+     *
+     * @param courseUUID     the id of the course
+     *
+     * @return the snapshot of the course, empty if the course does not exist
+     */
+    public Optional<CourseSnapshot> get(UUID courseUUID) {
+
+        boolean modifiedInTransaction = getCoursesModifiedInTransaction().contains(courseUUID);
+        if (! modifiedInTransaction) {
+            LoadedSnapshot loadedSnapshot = snapshots.get(courseUUID);
+            if (loadedSnapshot != null && System.nanoTime() - loadedSnapshot.loadedAtNanos() < timeToLiveNanos) {
+                hits.increment();
+                return Optional.of(loadedSnapshot.snapshot());
+            }
+        }
+        misses.increment();
+
+        long invalidationsBeforeLoad = invalidations.get();
+        long loadedAtNanos = System.nanoTime();
+        Optional<CourseSnapshot> snapshot = courseRepository.findById(courseUUID).map(CourseSnapshot::of);
+        if (snapshot.isPresent() && ! modifiedInTransaction && invalidations.get() == invalidationsBeforeLoad) {
+            snapshots.put(courseUUID, new LoadedSnapshot(snapshot.get(), loadedAtNanos));
+        }
+        return snapshot;
+
+    }
+
+    /**
+     * Evicts the course, because it is modified. Has to be called by every mutation of a course.
+     *
+     * @param courseUUID     the id of the modified course
+     */
+    public void invalidate(UUID courseUUID) {
+
+        evict(courseUUID);
+        if (! TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        Set<UUID> modifiedCourses = getCoursesModifiedInTransaction();
+        if (modifiedCourses.isEmpty()) {
+            Set<UUID> courses = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, courses);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CourseSnapshotCache.this);
+                    courses.forEach(CourseSnapshotCache.this::evict);
+                }
+            });
+            modifiedCourses = courses;
+        }
+        modifiedCourses.add(courseUUID);
+
+    }
+
+    public double getHits() {
+        return hits.count();
+    }
+
+    public double getMisses() {
+        return misses.count();
+    }
+
+    private void evict(UUID courseUUID) {
+        invalidations.incrementAndGet();
+        snapshots.remove(courseUUID);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<UUID> getCoursesModifiedInTransaction() {
+        Object courses = TransactionSynchronizationManager.getResource(this);
+        return courses == null ? Set.of() : (Set<UUID>) courses;
+    }
+
+}
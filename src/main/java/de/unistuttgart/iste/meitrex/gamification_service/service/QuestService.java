@@ -20,15 +20,12 @@ public class QuestService {
 
     private final QuestChainRepository questChainRepository;
     private final UserQuestChainRepository userQuestChainRepository;
+    private final ContentMetaDataRepository contentMetaDataRepository;
 
     private final QuestMapper questMapper;
 
     public final static int passingPercentage = 80;
 
-    public final static String descriptionPart1 = "Finish ";
-    public final static String descriptionPart2 = " with at least ";
-    public final static String descriptionPart3 = "% correct answers to unlock the next quest!";
-
 
     /**
      * Creates a new empty QuestChainEntity for the course and assigns it to the creator of the course.
@@ -40,10 +37,10 @@ public class QuestService {
 
         QuestChainEntity questChainEntity = new QuestChainEntity();
         questChainEntity.setCourseUUID(courseUUID);
-        questChainEntity.setQuests(new LinkedList<QuestEntity>());
+        questChainEntity.setQuests(new ArrayList<QuestEntity>());
         questChainRepository.save(questChainEntity);
 
-        assignQuestChainToUser(lecturerUUID, courseUUID);
+        assignQuestChainToUser(lecturerUUID, courseUUID, questChainEntity.getQuestChainUUID());
     }
 
     /**
@@ -52,64 +49,49 @@ public class QuestService {
      * @param courseUUID     the id of the deleted course
      */
     public void deleteQuestChainAndUserQuestChainsOfCourse(UUID courseUUID) {
+        userQuestChainRepository.deleteAllOfCourse(courseUUID);
         QuestChainEntity courseQuestChain = questChainRepository.findByCourseUUID(courseUUID);
         if (courseQuestChain == null) {
             return;
         }
         questChainRepository.deleteById(courseQuestChain.getQuestChainUUID());
-
-        List<UserQuestChainEntity> userQuestChainEntities = userQuestChainRepository.findByQuestChainUUID(courseQuestChain.getQuestChainUUID());
-        userQuestChainRepository.deleteAll(userQuestChainEntities);
     }
 
     /**
-     * Removes the quest that refers to the quiz
+     * Removes the quest that refers to the quiz. The progress positions of the users stay valid, so users past the
+     * quest simply have one finished quest less.
      *
      * @param courseUUID     the id of the course
      * @param quizUUID       the id of the deleted quiz
      */
     public void deleteQuestOfQuiz(UUID courseUUID, UUID quizUUID) {
-        QuestChainEntity courseQuestChain = questChainRepository.findByCourseUUID(courseUUID);
+        QuestChainEntity courseQuestChain = questChainRepository.findByCourseUUIDForUpdate(courseUUID).orElse(null);
         if (courseQuestChain == null) {
             return;
         }
-        int indexOfQuizQuest = courseQuestChain.removeQuestOfQuiz(quizUUID);
+        courseQuestChain.removeQuestOfQuiz(quizUUID);
         questChainRepository.save(courseQuestChain);
-
-        List<UserQuestChainEntity> userQuestChainEntities = userQuestChainRepository.findByQuestChainUUID(courseQuestChain.getQuestChainUUID());
-        for (UserQuestChainEntity userQuestChainEntity : userQuestChainEntities) {
-            if (0 <= indexOfQuizQuest && indexOfQuizQuest < userQuestChainEntity.getUserLevel()) {
-                userQuestChainEntity.decreaseUserLevel();
-                userQuestChainRepository.save(userQuestChainEntity);
-            }
-        }
     }
 
     /**
-     * Removes the quest that refers to the fcs
+     * Removes the quest that refers to the fcs. The progress positions of the users stay valid, so users past the
+     * quest simply have one finished quest less.
      *
      * @param courseUUID             the id of the course
      * @param flashCardSetUUID       the id of the deleted fcs
      */
     public void deleteQuestOfFCS(UUID courseUUID, UUID flashCardSetUUID) {
-        QuestChainEntity courseQuestChain = questChainRepository.findByCourseUUID(courseUUID);
+        QuestChainEntity courseQuestChain = questChainRepository.findByCourseUUIDForUpdate(courseUUID).orElse(null);
         if (courseQuestChain == null) {
             return;
         }
-        int indexOfFCSQuest = courseQuestChain.removeQuestOfFCS(flashCardSetUUID);
+        courseQuestChain.removeQuestOfFCS(flashCardSetUUID);
         questChainRepository.save(courseQuestChain);
-
-        List<UserQuestChainEntity> userQuestChainEntities = userQuestChainRepository.findByQuestChainUUID(courseQuestChain.getQuestChainUUID());
-        for (UserQuestChainEntity userQuestChainEntity : userQuestChainEntities) {
-            if (0 <= indexOfFCSQuest && indexOfFCSQuest < userQuestChainEntity.getUserLevel()) {
-                userQuestChainEntity.decreaseUserLevel();
-                userQuestChainRepository.save(userQuestChainEntity);
-            }
-        }
     }
 
     /**
-     * Retrieves the quest for a user and the course depending on the level of the user at this questchain
+     * Retrieves the quest for a user and the course depending on the progress of the user at this questchain.
+     * Only the current quest of the user is read, the other quests of the chain are not loaded.
      *
      * @param userUUID     the id of the user
      * @param courseUUID   the id of the course
@@ -118,31 +100,33 @@ public class QuestService {
      */
     public Quest getCurrentUserQuest(UUID userUUID, UUID courseUUID) {
 
-        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChainEntity == null) {
-            return new Quest();
+        Optional<UserQuestChainRepository.CurrentQuestView> currentQuest =
+                userQuestChainRepository.findCurrentQuest(courseUUID, userUUID);
+        if (currentQuest.isPresent()) {
+            UserQuestChainRepository.CurrentQuestView view = currentQuest.get();
+            QuestEntity questEntity = QuestEntity.builder()
+                    .questUUID(view.getQuestUUID())
+                    .quizUUID(view.getQuizUUID())
+                    .flashCardSetUUID(view.getFlashCardSetUUID())
+                    .build();
+            Quest quest = questMapper.questEntityToDto(questEntity, view.getContentName(), passingPercentage);
+            quest.setFinished(false);
+            quest.setLevel(Math.toIntExact(view.getUserLevel()));
+            return quest;
         }
 
-        UserQuestChainEntity userQuestChainEntity =
-                userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), userUUID);
+        // there is no quest after the progress of the user, so the user either finished all quests or has no quest chain
+        UserQuestChainEntity userQuestChainEntity = userQuestChainRepository.findByCourseUUIDAndUserUUID(courseUUID, userUUID);
         if (userQuestChainEntity == null) {
             return new Quest();
         }
-
-        int userLevel = userQuestChainEntity.getUserLevel();
-
-        if (0 < questChainEntity.size() && userLevel < questChainEntity.size()) {
-            Quest quest = questMapper.questEntityToDto(questChainEntity.getQuest(userLevel));
-            quest.setFinished(false);
-            quest.setLevel(userLevel);
-            return quest;
-        }
+        int userLevel = questChainRepository.countQuestsByCourseUUID(courseUUID).orElse(0);
         return new Quest(UUID.randomUUID(), null, null, true, "You finished all quests for this course!", userLevel);
 
     }
 
     /**
-     * Retrieves the complete quest chain for the user at the course
+     * Retrieves the quest chain for the user at the course. Its quests are resolved with {@link #getQuests(List)}.
      *
      * @param userUUID     the id of the user
      * @param courseUUID   the id of the course
@@ -151,211 +135,187 @@ public class QuestService {
      */
     public UserQuestChain getUserQuestChain(UUID userUUID, UUID courseUUID) {
 
-        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChainEntity == null) {
-            return new UserQuestChain();
-        }
-
-        UserQuestChainEntity userQuestChainEntity =
-                userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), userUUID);
+        UserQuestChainEntity userQuestChainEntity = userQuestChainRepository.findByCourseUUIDAndUserUUID(courseUUID, userUUID);
         if (userQuestChainEntity == null) {
             return new UserQuestChain();
         }
 
-        return questMapper.userQuestChainEntityToDto(userQuestChainEntity, questChainEntity.getQuests());
+        int userLevel = Math.toIntExact(
+                questChainRepository.countQuestsBefore(courseUUID, userQuestChainEntity.getProgressPosition()));
+        int questCount = questChainRepository.countQuestsByCourseUUID(courseUUID).orElse(0);
+        return questMapper.userQuestChainEntityToDto(userQuestChainEntity, userLevel, questCount);
 
     }
 
     /**
-     * Deletes the userQuestChain for the user at the course
+     * Retrieves the quests of several userQuestChains at once, with one query for the quest chains and one for the
+     * names of their content.
      *
-     * @param userUUID     the id of the user
-     * @param courseUUID   the id of the course
-     */
-    public void deleteUserQuestChain(UUID userUUID, UUID courseUUID) {
-        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChainEntity == null) {
-            return;
-        }
-        userQuestChainRepository.deleteByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), userUUID);
-    }
-
-    /**
-     * Assigns the questchain of the course for a user, who just joined the course
+     * @param userQuestChains     the userQuestChains, for example all userQuestChains of a GraphQL request
      *
-     * @param userUUID     the id of the user
-     * @param courseUUID   the id of the course
+     * @return the quests of every userQuestChain, marked as finished up to the level of its user
      */
-    public void assignQuestChainToUser(UUID userUUID, UUID courseUUID) {
+    public Map<UserQuestChain, List<Quest>> getQuests(List<UserQuestChain> userQuestChains) {
 
-        QuestChainEntity questChain = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChain == null) {
-            return;
+        Set<UUID> questChainUUIDs = new HashSet<>();
+        for (UserQuestChain userQuestChain : userQuestChains) {
+            if (userQuestChain.getQuestChainUUID() != null) {
+                questChainUUIDs.add(userQuestChain.getQuestChainUUID());
+            }
         }
 
-        UserQuestChainEntity userQuestChain = new UserQuestChainEntity();
-        userQuestChain.setQuestChainUUID(questChain.getQuestChainUUID());
-        userQuestChain.setUserUUID(userUUID);
-        userQuestChainRepository.save(userQuestChain);
+        Map<UUID, QuestChainEntity> questChains = new HashMap<>();
+        Set<UUID> courseUUIDs = new HashSet<>();
+        if (! questChainUUIDs.isEmpty()) {
+            for (QuestChainEntity questChain : questChainRepository.findWithQuestsByQuestChainUUIDIn(questChainUUIDs)) {
+                questChains.put(questChain.getQuestChainUUID(), questChain);
+                courseUUIDs.add(questChain.getCourseUUID());
+            }
+        }
+        Map<UUID, String> contentNames = courseUUIDs.isEmpty()
+                ? Map.of()
+                : contentMetaDataRepository.findContentNameMapByCourseUUIDIn(courseUUIDs);
+
+        Map<UserQuestChain, List<Quest>> quests = new HashMap<>();
+        for (UserQuestChain userQuestChain : userQuestChains) {
+            QuestChainEntity questChain = questChains.get(userQuestChain.getQuestChainUUID());
+            quests.put(userQuestChain, questChain == null || questChain.getQuests() == null
+                    ? List.of()
+                    : questMapper.userQuestsToDto(questChain.getQuests(), userQuestChain.getUserLevel(), contentNames,
+                            passingPercentage));
+        }
+        return quests;
 
     }
 
     /**
-     * Creates a quest for the given course, which suggests the user to complete the quiz with 80% correct answers
+     * Moves the quest of a quiz or flashCardSet to another index of the quest chain of the course. Only the moved
+     * quest gets a new position, unless its new neighbours leave no gap and the chain has to be rebalanced.
+     * The progress of the users is kept: a quest moved in front of the progress of a user counts as finished,
+     * a quest moved behind it has to be finished. The quest chain is locked, so moves and finished quests of the
+     * chain do not interleave.
      *
-     * @param quizUUID     the id of the created quiz
-     * @param name         the name of the quiz
-     * @param courseUUID   the id of the course
+     * @param courseUUID      the id of the course
+     * @param contentUUID     the id of the quiz or flashCardSet of the quest
+     * @param index           the new index of the quest in the chain
+     *
+     * @return whether the quest was moved
      */
-    public void createQuestForQuiz(UUID quizUUID, String name, UUID courseUUID) {
+    public boolean moveQuest(UUID courseUUID, UUID contentUUID, int index) {
 
-        QuestEntity quest = new QuestEntity();
-        quest.setQuizUUID(quizUUID);
-        quest.setDescription(descriptionPart1 + "quiz " + name + descriptionPart2 + passingPercentage + descriptionPart3);
+        QuestChainEntity questChain = questChainRepository.findByCourseUUIDForUpdate(courseUUID).orElse(null);
+        if (questChain == null || index < 0 || index >= questChain.size()) {
+            return false;
+        }
+        int currentIndex = questChain.findIndexOfContentQuest(contentUUID);
+        if (currentIndex < 0) {
+            return false;
+        }
+        if (currentIndex == index) {
+            return true;
+        }
 
-        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChainEntity == null) {
-            return;
+        if (! questChain.hasGapForMove(currentIndex, index)) {
+            rebalance(questChain);
         }
-        questChainEntity.addQuest(quest);
-        questChainRepository.save(questChainEntity);
+        questChain.insertQuest(questChain.removeQuest(currentIndex), index);
+        questChainRepository.save(questChain);
+        return true;
 
     }
 
     /**
-     * Creates a quest for the given course, which suggests the user to complete the flashcardset with 80% correct answers
+     * Renumbers the quests of the chain and moves the progress positions of its users along, so every user keeps
+     * the finished quests. This writes every quest and userQuestChain of the chain, but is only needed when a gap
+     * between two quests is used up. The quest chain has to be locked by the caller.
      *
-     * @param flashCardSetUUID     the id of the created flashcardset
-     * @param name                 the name of the flashcardset
-     * @param courseUUID           the id of the course
+     * @param questChain     the quest chain
      */
-    public void createQuestForFlashCardSet(UUID flashCardSetUUID, String name, UUID courseUUID) {
-
-        QuestEntity quest = new QuestEntity();
-        quest.setFlashCardSetUUID(flashCardSetUUID);
-        quest.setDescription(descriptionPart1 + "flashCardSet " + name + descriptionPart2 + passingPercentage + descriptionPart3);
+    private void rebalance(QuestChainEntity questChain) {
 
-        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChainEntity == null) {
-            return;
+        List<UserQuestChainEntity> userQuestChains = userQuestChainRepository.findByCourseUUID(questChain.getCourseUUID());
+        int[] userLevels = new int[userQuestChains.size()];
+        for (int i = 0; i < userQuestChains.size(); i++) {
+            userLevels[i] = questChain.levelOf(userQuestChains.get(i));
         }
-        questChainEntity.addQuest(quest);
-        questChainRepository.save(questChainEntity);
-
-    }
 
-    /**
-     * Changes the description of the quest for the quiz with the new name
-     *
-     * @param quizUUID     the id of the edited quiz
-     * @param courseUUID   the id of the course, which contains the quiz
-     * @param name         the new name of the quiz
-     */
-    public void changeQuizName(UUID quizUUID, UUID courseUUID, String name) {
-        QuestChainEntity questChain = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChain == null) {
-            return;
+        questChain.rebalance();
+        for (int i = 0; i < userQuestChains.size(); i++) {
+            userQuestChains.get(i).setProgressPosition(questChain.progressPositionOfLevel(userLevels[i]));
         }
-        questChain.changeNameOfQuiz(quizUUID, name);
-        questChainRepository.save(questChain);
+        userQuestChainRepository.saveAll(userQuestChains);
+        log.info("Rebalanced the quest chain of course {}", questChain.getCourseUUID());
+
     }
 
     /**
-     * Changes the description of the quest for the flashCardSet with the new name
+     * Deletes the userQuestChain for the user at the course
      *
-     * @param flashCardSetUUID     the id of the edited flashCardSet
-     * @param courseUUID           the id of the course, which contains the flashCardSet
-     * @param name                 the new name of the flashCardSet
+     * @param userUUID     the id of the user
+     * @param courseUUID   the id of the course
      */
-    public void changeFlashCardSetName(UUID flashCardSetUUID, UUID courseUUID, String name) {
-        QuestChainEntity questChain = questChainRepository.findByCourseUUID(courseUUID);
-        if (questChain == null) {
-            return;
-        }
-        questChain.changeNameOfFlashCardSet(flashCardSetUUID, name);
-        questChainRepository.save(questChain);
+    public void deleteUserQuestChain(UUID userUUID, UUID courseUUID) {
+        userQuestChainRepository.deleteByCourseUUIDAndUserUUID(courseUUID, userUUID);
     }
 
     /**
-     * Retrieves the userQuestChain for the user at the course
+     * Assigns the questchain of the course for a user, who just joined the course
      *
      * @param userUUID     the id of the user
      * @param courseUUID   the id of the course
-     *
-     * @return the UserQuestChainEntity for the user at this course
      */
-    private UserQuestChainEntity findByUserUUIDAndCourseUUID(UUID userUUID, UUID courseUUID) {
+    public void assignQuestChainToUser(UUID userUUID, UUID courseUUID) {
+        questChainRepository.findQuestChainUUIDByCourseUUID(courseUUID)
+                .ifPresent(questChainUUID -> assignQuestChainToUser(userUUID, courseUUID, questChainUUID));
+    }
 
-        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
+    private void assignQuestChainToUser(UUID userUUID, UUID courseUUID, UUID questChainUUID) {
 
-        if (questChainEntity == null) {
-            return null;
-        }
-        return userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), userUUID);
+        UserQuestChainEntity userQuestChain = new UserQuestChainEntity();
+        userQuestChain.setQuestChainUUID(questChainUUID);
+        userQuestChain.setCourseUUID(courseUUID);
+        userQuestChain.setUserUUID(userUUID);
+        userQuestChainRepository.save(userQuestChain);
 
     }
 
     /**
-     * Marks the current quest of the user at this course as finished, if he got more than 80% of the answers correct
-     * and the current quest points to the finished quiz
+     * Creates a quest for the given course, which suggests the user to complete the quiz with 80% correct answers
      *
-     * @param userUUID             the id of the user
-     * @param courseUUID           the id of the course, in which the quiz is
-     * @param quizUUID             the id of the quiz
-     * @param correctAnswers       the number of correct answers, the user got for this quiz
-     * @param totalAnswers         the total number of questions in this quiz
+     * @param quizUUID     the id of the created quiz
+     * @param courseUUID   the id of the course
      */
-    public void markQuestAsFinishedIfPassedQuiz(UUID userUUID, UUID courseUUID, UUID quizUUID, int correctAnswers, int totalAnswers) {
+    public void createQuestForQuiz(UUID quizUUID, UUID courseUUID) {
 
-        if (correctAnswers > totalAnswers
-            || correctAnswers < 0) {
-            return;
-        }
+        QuestEntity quest = new QuestEntity();
+        quest.setQuizUUID(quizUUID);
 
-        UserQuestChainEntity userQuestChainEntity = findByUserUUIDAndCourseUUID(userUUID, courseUUID);
-        if (userQuestChainEntity == null) {
+        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUIDForUpdate(courseUUID).orElse(null);
+        if (questChainEntity == null) {
             return;
         }
-
-        Quest currentUserQuest = getCurrentUserQuest(userUUID, courseUUID);
-        int percentage = (correctAnswers * 100) / totalAnswers;
-        if (quizUUID.equals(currentUserQuest.getQuizUUID()) && percentage >= passingPercentage) {
-            userQuestChainEntity.finishQuest();
-        }
-
-        userQuestChainRepository.save(userQuestChainEntity);
+        questChainEntity.addQuest(quest);
+        questChainRepository.save(questChainEntity);
 
     }
 
     /**
-     * Marks the current quest of the user at this course as finished, if he got more than 80% of the answers correct
-     * and the current quest points to the finished flashCardSet
+     * Creates a quest for the given course, which suggests the user to complete the flashcardset with 80% correct answers
      *
-     * @param userUUID             the id of the user
-     * @param courseUUID           the id of the course, in which the flashCardSet is
-     * @param flashCardSetUUID     the id of the flashCardSet
-     * @param correctAnswers       the number of correct answers, the user got for this flashCardSet
-     * @param totalAnswers         the total number of questions in this flashCardSet
+     * @param flashCardSetUUID     the id of the created flashcardset
+     * @param courseUUID           the id of the course
      */
-    public void markQuestAsFinishedIfPassedFlashCardSet(UUID userUUID, UUID courseUUID, UUID flashCardSetUUID, int correctAnswers, int totalAnswers) {
+    public void createQuestForFlashCardSet(UUID flashCardSetUUID, UUID courseUUID) {
 
-        if (correctAnswers > totalAnswers
-            || correctAnswers < 0) {
-            return;
-        }
+        QuestEntity quest = new QuestEntity();
+        quest.setFlashCardSetUUID(flashCardSetUUID);
 
-        UserQuestChainEntity userQuestChainEntity = findByUserUUIDAndCourseUUID(userUUID, courseUUID);
-        if (userQuestChainEntity == null) {
+        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUIDForUpdate(courseUUID).orElse(null);
+        if (questChainEntity == null) {
             return;
         }
-
-        Quest currentUserQuest = getCurrentUserQuest(userUUID, courseUUID);
-        int percentage = (correctAnswers * 100) / totalAnswers;
-        if (flashCardSetUUID.equals(currentUserQuest.getFlashCardSetUUID()) && percentage >= passingPercentage) {
-            userQuestChainEntity.finishQuest();
-        }
-
-        userQuestChainRepository.save(userQuestChainEntity);
+        questChainEntity.addQuest(quest);
+        questChainRepository.save(questChainEntity);
 
     }
 
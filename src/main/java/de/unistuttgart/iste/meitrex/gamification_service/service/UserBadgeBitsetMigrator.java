@@ -0,0 +1,90 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeBitsetMigrationEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.BadgeRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeBitsetMigrationRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeBitsetRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Sets the bits of the userBadges, that were achieved while another storage was configured, when the application
+ * starts with the bitset storage for the first time. The bitset storage does not read the userBadges, so without
+ * this step switching the storage would lose the achieved badges.
+ * <p>
+ * The migration runs once, under an advisory lock, so instances starting together do not migrate concurrently,
+ * and is marked as done in the database. Starting with another storage removes the mark, so the userBadges achieved
+ * in the meantime are migrated at the next switch to the bitset storage.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class UserBadgeBitsetMigrator implements ApplicationRunner {
+
+    private static final String migration = "achieved-user-badges";
+
+    private final BadgeRepository badgeRepository;
+    private final UserBadgeBitsetRepository userBadgeBitsetRepository;
+    private final UserBadgeBitsetMigrationRepository userBadgeBitsetMigrationRepository;
+
+    @Value("${gamification.badges.storage:sparse}")
+    private BadgeService.UserBadgeStorage userBadgeStorage;
+
+    /**
+     * Sets the bits of the achieved userBadges, if the bitset storage is configured and they were not migrated
+     * yet. Otherwise the mark of the migration is removed.
+     *
+     * @param args    the arguments of the application
+     *
+     * @throws IllegalStateException if badges without content ordinal exist, which have no bit
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+
+        if (userBadgeStorage != BadgeService.UserBadgeStorage.BITSET) {
+            userBadgeBitsetMigrationRepository.deleteAllInBatch();
+            return;
+        }
+        userBadgeBitsetMigrationRepository.lockMigration();
+        if (userBadgeBitsetMigrationRepository.existsById(migration)) {
+            return;
+        }
+        long badgesWithoutOrdinal = badgeRepository.countByContentOrdinalIsNull();
+        if (badgesWithoutOrdinal > 0) {
+            throw new IllegalStateException(badgesWithoutOrdinal + " badges have no content ordinal, "
+                    + "so their achievements cannot be stored in bitsets. Run the database migrations first.");
+        }
+        migrateAchievedUserBadges();
+        userBadgeBitsetMigrationRepository.save(UserBadgeBitsetMigrationEntity.builder()
+                .migration(migration)
+                .migratedAt(OffsetDateTime.now())
+                .build());
+
+    }
+
+    /**
+     * Sets the bit of every achieved userBadge in the bitset of its user at the course of its badge, with one
+     * statement.
+     *
+     * @return the number of bitsets, that changed
+     */
+    public int migrateAchievedUserBadges() {
+
+        int changedBitsets = userBadgeBitsetRepository.mergeAchievedUserBadges(BadgeService.bronzePassingPercentage,
+                BadgeService.silverPassingPercentage, BadgeService.goldPassingPercentage);
+        if (changedBitsets > 0) {
+            log.info("Stored the achieved userBadges in {} bitsets", changedBitsets);
+        }
+        return changedBitsets;
+
+    }
+
+}
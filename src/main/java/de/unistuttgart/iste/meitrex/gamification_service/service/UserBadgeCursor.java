@@ -0,0 +1,63 @@
+package de.unistuttgart.iste.meitrex.gamification_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keyset cursor of a page of userBadges, which points to the last badge of the page. The userBadges are ordered by
+ * the passing percentage of their badge and then by the id of the badge, in the order of the database.
+ *
+ * @param passingPercentage     the passing percentage of the badge
+ * @param badgeUUID             the id of the badge
+ */
+public record UserBadgeCursor(int passingPercentage, UUID badgeUUID) {
+
+    /**
+     * Points before the first badge.
+     */
+    public static final UserBadgeCursor START = new UserBadgeCursor(-1, new UUID(0, 0));
+
+    /**
+     * @return the opaque string representation of the cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((passingPercentage + ":" + badgeUUID).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor, which was encoded with {@link #encode()}.
+     *
+     * @param cursor     the opaque string representation of the cursor, null for the first page
+     *
+     * @return the cursor, empty if the string is no valid cursor
+     */
+    public static Optional<UserBadgeCursor> decode(String cursor) {
+        if (cursor == null) {
+            return Optional.of(START);
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 2);
+            return Optional.of(new UserBadgeCursor(Integer.parseInt(parts[0]), UUID.fromString(parts[1])));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks whether the badge is after the cursor. Ids are compared like in the database, where a uuid is ordered
+     * by its hexadecimal representation.
+     *
+     * @param badge     the badge
+     *
+     * @return whether the badge is after the cursor
+     */
+    public boolean isBefore(BadgeDefinition badge) {
+        return passingPercentage < badge.getPassingPercentage()
+                || (passingPercentage == badge.getPassingPercentage()
+                    && badgeUUID.toString().compareTo(badge.getBadgeUUID().toString()) < 0);
+    }
+
+}
@@ -0,0 +1,17 @@
+-- Every user has at most one bloomLevel per course, so exp is added with a single upsert.
+-- Duplicated bloomLevels are merged into the one with the most exp.
+-- On a new database the tables do not exist yet and are created by hibernate afterwards.
+DO $$
+BEGIN
+    IF to_regclass('bloom_level') IS NOT NULL THEN
+        DELETE FROM bloom_level b
+        USING bloom_level other
+        WHERE b.useruuid = other.useruuid
+          AND b.courseuuid = other.courseuuid
+          AND (b.collected_exp < other.collected_exp
+               OR (b.collected_exp = other.collected_exp AND b.bloom_leveluuid < other.bloom_leveluuid));
+
+        ALTER TABLE bloom_level DROP CONSTRAINT IF EXISTS uk_bloom_level_user_course;
+        ALTER TABLE bloom_level ADD CONSTRAINT uk_bloom_level_user_course UNIQUE (useruuid, courseuuid);
+    END IF;
+END $$;
@@ -0,0 +1,21 @@
+-- The members of the courses moved from the element collection course_useruuids into course_membership.
+-- The table is created like hibernate creates it, the members are copied and the old collection table is dropped.
+DO $$
+BEGIN
+    IF to_regclass('course_useruuids') IS NOT NULL THEN
+        CREATE TABLE IF NOT EXISTS course_membership (
+            course_uuid uuid NOT NULL,
+            user_uuid uuid NOT NULL,
+            PRIMARY KEY (course_uuid, user_uuid)
+        );
+        CREATE INDEX IF NOT EXISTS idx_course_membership_user_uuid ON course_membership (user_uuid);
+
+        INSERT INTO course_membership (course_uuid, user_uuid)
+        SELECT DISTINCT course_courseuuid, useruuids
+        FROM course_useruuids
+        WHERE course_courseuuid IS NOT NULL AND useruuids IS NOT NULL
+        ON CONFLICT DO NOTHING;
+
+        DROP TABLE course_useruuids;
+    END IF;
+END $$;
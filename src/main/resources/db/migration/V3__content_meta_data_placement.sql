@@ -0,0 +1,32 @@
+-- The metadata of the content stores the course, chapter and level, the content is placed in.
+-- The course is copied from the content of the courses. The chapter was never stored before, so it is only known
+-- for courses with a single chapter, other content is placed in the chapter it is first finished or edited in.
+DO $$
+BEGIN
+    IF to_regclass('content_meta_data') IS NOT NULL THEN
+        ALTER TABLE content_meta_data ADD COLUMN IF NOT EXISTS course_uuid uuid;
+        ALTER TABLE content_meta_data ADD COLUMN IF NOT EXISTS chapter_uuid uuid;
+        ALTER TABLE content_meta_data ADD COLUMN IF NOT EXISTS level integer;
+        ALTER TABLE content_meta_data ALTER COLUMN level DROP NOT NULL;
+
+        IF to_regclass('course_content') IS NOT NULL THEN
+            UPDATE content_meta_data m
+            SET course_uuid = c.course_courseuuid
+            FROM course_content c
+            WHERE c.content = m.contentuuid
+              AND m.course_uuid IS NULL;
+        END IF;
+
+        IF to_regclass('course_chapters') IS NOT NULL THEN
+            UPDATE content_meta_data m
+            SET chapter_uuid = c.chapters,
+                level = 0
+            FROM course_chapters c
+            WHERE c.course_courseuuid = m.course_uuid
+              AND m.chapter_uuid IS NULL
+              AND (SELECT count(*) FROM course_chapters o WHERE o.course_courseuuid = m.course_uuid) = 1;
+        END IF;
+
+        CREATE INDEX IF NOT EXISTS idx_content_meta_data_course_chapter ON content_meta_data (course_uuid, chapter_uuid);
+    END IF;
+END $$;
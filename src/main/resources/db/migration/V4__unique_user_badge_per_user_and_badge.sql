@@ -0,0 +1,23 @@
+-- A user has at most one userBadge per badge. Duplicates are merged into one userBadge, which is achieved if any
+-- of the duplicates is, before the unique constraint is added. The unique index also serves the join of the badges
+-- of a course with the userBadges of one user.
+DO $$
+BEGIN
+    IF to_regclass('user_badge') IS NOT NULL THEN
+        UPDATE user_badge u
+        SET achieved = true
+        WHERE NOT u.achieved
+          AND EXISTS (SELECT 1 FROM user_badge d
+                      WHERE d.useruuid = u.useruuid AND d.badgeuuid = u.badgeuuid AND d.achieved);
+
+        DELETE FROM user_badge u
+        USING user_badge d
+        WHERE d.useruuid = u.useruuid
+          AND d.badgeuuid = u.badgeuuid
+          AND d.user_badgeuuid < u.user_badgeuuid;
+
+        ALTER TABLE user_badge DROP CONSTRAINT IF EXISTS uk_user_badge_user_badge;
+        ALTER TABLE user_badge ADD CONSTRAINT uk_user_badge_user_badge UNIQUE (useruuid, badgeuuid);
+        CREATE INDEX IF NOT EXISTS idx_user_badge_badge ON user_badge (badgeuuid);
+    END IF;
+END $$;
@@ -0,0 +1,43 @@
+-- The bitset storage locates a badge by the ordinal of its quiz or flashCardSet in the course. Badges created
+-- before the ordinals existed are numbered per course, after the ordinals the course has handed out already, and
+-- the next ordinal of every course is moved behind them.
+-- The achieved userBadges are moved into the bitsets by the application, when it starts with the bitset storage.
+DO $$
+BEGIN
+    IF to_regclass('course') IS NOT NULL AND to_regclass('badge') IS NOT NULL THEN
+        ALTER TABLE course ADD COLUMN IF NOT EXISTS next_content_ordinal integer NOT NULL DEFAULT 0;
+        ALTER TABLE badge ADD COLUMN IF NOT EXISTS content_ordinal integer;
+
+        WITH unnumbered AS (
+            SELECT DISTINCT b.courseuuid, coalesce(b.quizuuid, b.flash_card_setuuid) AS content_uuid
+            FROM badge b
+            WHERE b.content_ordinal IS NULL
+              AND b.courseuuid IS NOT NULL
+              AND coalesce(b.quizuuid, b.flash_card_setuuid) IS NOT NULL
+        ), numbered AS (
+            SELECT u.courseuuid,
+                   u.content_uuid,
+                   greatest(
+                           coalesce((SELECT max(o.content_ordinal) + 1 FROM badge o
+                                     WHERE o.courseuuid = u.courseuuid), 0),
+                           coalesce((SELECT c.next_content_ordinal FROM course c
+                                     WHERE c.courseuuid = u.courseuuid), 0))
+                       + row_number() OVER (PARTITION BY u.courseuuid ORDER BY u.content_uuid) - 1 AS content_ordinal
+            FROM unnumbered u
+        )
+        UPDATE badge b
+        SET content_ordinal = n.content_ordinal
+        FROM numbered n
+        WHERE b.content_ordinal IS NULL
+          AND b.courseuuid = n.courseuuid
+          AND coalesce(b.quizuuid, b.flash_card_setuuid) = n.content_uuid;
+
+        UPDATE course c
+        SET next_content_ordinal = o.next_content_ordinal
+        FROM (SELECT courseuuid, max(content_ordinal) + 1 AS next_content_ordinal
+              FROM badge
+              GROUP BY courseuuid) o
+        WHERE o.courseuuid = c.courseuuid
+          AND o.next_content_ordinal > c.next_content_ordinal;
+    END IF;
+END $$;
@@ -0,0 +1,33 @@
+-- The descriptions of badges and quests are rendered from the name of their content instead of being saved.
+-- The names of existing content are taken from the saved descriptions, first from the badges and then from the
+-- quests. The descriptions have the formats
+--   "At least <percentage>% of your answers for the quiz <name> are correct."
+--   "Finish flashCardSet <name> with at least <percentage>% correct answers to unlock the next quest!"
+DO $$
+BEGIN
+    IF to_regclass('content_meta_data') IS NOT NULL THEN
+        ALTER TABLE content_meta_data ADD COLUMN IF NOT EXISTS name varchar(255);
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'badge' AND column_name = 'description') THEN
+            UPDATE content_meta_data m
+            SET name = substring(b.description
+                                 from '^At least [0-9]+% of your answers for the (?:quiz|flashCardSet) (.*) are correct\.$')
+            FROM badge b
+            WHERE coalesce(b.quizuuid, b.flash_card_setuuid) = m.contentuuid
+              AND m.name IS NULL
+              AND b.description ~ '^At least [0-9]+% of your answers for the (?:quiz|flashCardSet) .* are correct\.$';
+        END IF;
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'quest' AND column_name = 'description') THEN
+            UPDATE content_meta_data m
+            SET name = substring(q.description
+                                 from '^Finish (?:quiz|flashCardSet) (.*) with at least [0-9]+% correct answers to unlock the next quest!$')
+            FROM quest q
+            WHERE coalesce(q.quizuuid, q.flash_card_setuuid) = m.contentuuid
+              AND m.name IS NULL
+              AND q.description ~ '^Finish (?:quiz|flashCardSet) .* with at least [0-9]+% correct answers to unlock the next quest!$';
+        END IF;
+    END IF;
+END $$;
@@ -0,0 +1,21 @@
+-- The quests of a quest chain are saved with their position in the chain. The quests of chains saved before were
+-- loaded in the order of the rows of the join table, so they are numbered in this order.
+DO $$
+BEGIN
+    IF to_regclass('quest_chain_quests') IS NOT NULL THEN
+        ALTER TABLE quest_chain_quests ADD COLUMN IF NOT EXISTS quest_position integer;
+
+        WITH numbered AS (
+            SELECT q.ctid AS row_id,
+                   row_number() OVER (PARTITION BY q.quest_chain_quest_chainuuid ORDER BY q.ctid) - 1 AS position
+            FROM quest_chain_quests q
+            WHERE q.quest_chain_quest_chainuuid IN (SELECT u.quest_chain_quest_chainuuid
+                                                    FROM quest_chain_quests u
+                                                    WHERE u.quest_position IS NULL)
+        )
+        UPDATE quest_chain_quests q
+        SET quest_position = n.position
+        FROM numbered n
+        WHERE q.ctid = n.row_id;
+    END IF;
+END $$;
@@ -0,0 +1,35 @@
+-- A userQuestChain stores the course of its quest chain and a user has at most one userQuestChain per course.
+-- The course is copied from the quest chain. Of duplicates the userQuestChain with the highest level is kept,
+-- before the unique constraint is added.
+DO $$
+BEGIN
+    IF to_regclass('user_quest_chain') IS NOT NULL AND to_regclass('quest_chain') IS NOT NULL THEN
+        ALTER TABLE user_quest_chain ADD COLUMN IF NOT EXISTS courseuuid uuid;
+
+        UPDATE user_quest_chain u
+        SET courseuuid = c.courseuuid
+        FROM quest_chain c
+        WHERE c.quest_chainuuid = u.quest_chainuuid
+          AND u.courseuuid IS NULL;
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'user_quest_chain'
+                     AND column_name = 'user_level') THEN
+            DELETE FROM user_quest_chain u
+            USING user_quest_chain d
+            WHERE d.courseuuid = u.courseuuid
+              AND d.useruuid = u.useruuid
+              AND (d.user_level > u.user_level
+                   OR (d.user_level = u.user_level AND d.user_quest_chainuuid < u.user_quest_chainuuid));
+        ELSE
+            DELETE FROM user_quest_chain u
+            USING user_quest_chain d
+            WHERE d.courseuuid = u.courseuuid
+              AND d.useruuid = u.useruuid
+              AND d.user_quest_chainuuid < u.user_quest_chainuuid;
+        END IF;
+
+        ALTER TABLE user_quest_chain DROP CONSTRAINT IF EXISTS uk_user_quest_chain_course_user;
+        ALTER TABLE user_quest_chain ADD CONSTRAINT uk_user_quest_chain_course_user UNIQUE (courseuuid, useruuid);
+    END IF;
+END $$;
@@ -0,0 +1,35 @@
+-- Quests are ordered by a position with gaps instead of their index in the chain, and the progress of a user is a
+-- position instead of the number of finished quests. The quest at index i gets the position (i + 1) * 1024, and a
+-- user, who finished the first l quests, gets the progress position right behind the last finished quest.
+-- The index of the quests and the level of the users are dropped afterwards.
+DO $$
+BEGIN
+    IF to_regclass('quest') IS NOT NULL THEN
+        ALTER TABLE quest ADD COLUMN IF NOT EXISTS chain_position integer NOT NULL DEFAULT 0;
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'quest_chain_quests'
+                     AND column_name = 'quest_position') THEN
+            UPDATE quest q
+            SET chain_position = (c.quest_position + 1) * 1024
+            FROM quest_chain_quests c
+            WHERE c.quests_questuuid = q.questuuid
+              AND c.quest_position IS NOT NULL;
+
+            ALTER TABLE quest_chain_quests DROP COLUMN quest_position;
+        END IF;
+    END IF;
+
+    IF to_regclass('user_quest_chain') IS NOT NULL THEN
+        ALTER TABLE user_quest_chain ADD COLUMN IF NOT EXISTS progress_position integer NOT NULL DEFAULT 0;
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'user_quest_chain'
+                     AND column_name = 'user_level') THEN
+            UPDATE user_quest_chain
+            SET progress_position = CASE WHEN user_level > 0 THEN user_level * 1024 + 1 ELSE 0 END;
+
+            ALTER TABLE user_quest_chain DROP COLUMN user_level;
+        END IF;
+    END IF;
+END $$;
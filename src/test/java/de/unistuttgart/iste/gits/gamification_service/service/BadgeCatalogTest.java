@@ -0,0 +1,214 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.service.BadgeCatalog;
+import de.unistuttgart.iste.meitrex.gamification_service.service.BadgeDefinition;
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the catalog of the badge definitions.
+ * <p>
+ * This test class is not transactional, so the catalog is updated by the committed mutations,
+ * like between requests in production. The catalog holds a single course, so loading another course evicts it.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@TestPropertySource(properties = "gamification.badge-catalog.max-size=1")
+class BadgeCatalogTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BadgeCatalog badgeCatalog;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Removes the committed test course after each test.
+     */
+    @AfterEach
+    void deleteTestCourse() {
+        gamificationController.deleteBadgesAndQuestsOfCourse(courseUUID);
+    }
+
+    /**
+     * Tests reading the badges of a course several times.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The first lookup loads the course, the second one is served from the catalog.</li>
+     *   <li>The catalog contains the three badges of the quiz and the flashCardSet, ordered by their tier.</li>
+     * </ul>
+     */
+    @Test
+    void catalogedBadgesTest() {
+        double loads = badgeCatalog.getLoads();
+
+        List<BadgeDefinition> badges = badgeCatalog.getBadgesOfCourse(courseUUID);
+        assertEquals(loads + 1, badgeCatalog.getLoads());
+        assertSame(badges, badgeCatalog.getBadgesOfCourse(courseUUID));
+        assertEquals(loads + 1, badgeCatalog.getLoads());
+
+        assertEquals(6, badges.size());
+        List<BadgeDefinition> quizBadges = badgeCatalog.getBadgesOfContent(courseUUID, quizUUID);
+        assertEquals(List.of(50, 70, 90), quizBadges.stream().map(BadgeDefinition::getPassingPercentage).toList());
+        for (BadgeDefinition badge : quizBadges) {
+            assertEquals(courseUUID, badge.getCourseUUID());
+            assertEquals(quizUUID, badge.getContentUUID());
+        }
+        assertEquals(3, badgeCatalog.getBadgesOfContent(courseUUID, flashCardSetUUID).size());
+        assertTrue(badgeCatalog.getBadgesOfContent(courseUUID, UUID.randomUUID()).isEmpty());
+    }
+
+    /**
+     * Tests creating, finishing and deleting a quiz of a loaded course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The badges of the new quiz are added to the catalog without loading the course again.</li>
+     *   <li>Finishing the new quiz achieves its badges without loading the course again.</li>
+     *   <li>The badges of the deleted quiz are removed from the catalog without loading the course again.</li>
+     * </ul>
+     */
+    @Test
+    void incrementalUpdateTest() {
+        UUID quiz2UUID = UUID.randomUUID();
+        badgeCatalog.getBadgesOfCourse(courseUUID);
+        double loads = badgeCatalog.getLoads();
+
+        assertEquals("Created quiz successfully.", gamificationController.createQuiz(quiz2UUID, "Quiz 2",
+                courseUUID, chapterUUID, 30, List.of(SkillType.REMEMBER)));
+        assertEquals(9, badgeCatalog.getBadgesOfCourse(courseUUID).size());
+        List<BadgeDefinition> quiz2Badges = badgeCatalog.getBadgesOfContent(courseUUID, quiz2UUID);
+        assertEquals(List.of(50, 70, 90), quiz2Badges.stream().map(BadgeDefinition::getPassingPercentage).toList());
+
+        assertEquals("Finished quiz!",
+                gamificationController.finishQuiz(user1UUID, courseUUID, quiz2UUID, 10, 10, chapterUUID));
+        Set<UUID> quiz2BadgeUUIDs = new HashSet<>();
+        quiz2Badges.forEach(badge -> quiz2BadgeUUIDs.add(badge.getBadgeUUID()));
+        for (UserBadge userBadge : gamificationController.getCoursesUserBadges(courseUUID, user1UUID)) {
+            assertEquals(quiz2BadgeUUIDs.contains(userBadge.getBadgeUUID()), userBadge.getAchieved());
+        }
+
+        assertEquals("Quiz deleted.",
+                gamificationController.deleteBadgesAndQuestOfQuiz(quiz2UUID, courseUUID, chapterUUID));
+        assertTrue(badgeCatalog.getBadgesOfContent(courseUUID, quiz2UUID).isEmpty());
+        assertEquals(6, badgeCatalog.getBadgesOfCourse(courseUUID).size());
+
+        assertEquals(loads, badgeCatalog.getLoads());
+    }
+
+    /**
+     * Tests reading the badges of more courses than the catalog holds.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Loading a second course evicts the first one, so the next lookup of the first course loads it again.</li>
+     *   <li>The reloaded course still contains its six badges.</li>
+     * </ul>
+     */
+    @Test
+    void evictedCourseTest() {
+        UUID course2UUID = UUID.randomUUID();
+        TestUtils.createTestCourse(gamificationController,
+                course2UUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                UUID.randomUUID());
+        try {
+            List<BadgeDefinition> badges = badgeCatalog.getBadgesOfCourse(courseUUID);
+            double loads = badgeCatalog.getLoads();
+
+            assertEquals(6, badgeCatalog.getBadgesOfCourse(course2UUID).size());
+            assertEquals(loads + 1, badgeCatalog.getLoads());
+
+            List<BadgeDefinition> reloadedBadges = badgeCatalog.getBadgesOfCourse(courseUUID);
+            assertEquals(loads + 2, badgeCatalog.getLoads());
+            assertNotSame(badges, reloadedBadges);
+            assertEquals(6, reloadedBadges.size());
+        } finally {
+            gamificationController.deleteBadgesAndQuestsOfCourse(course2UUID);
+        }
+    }
+
+}
@@ -0,0 +1,259 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.BadgeEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeBitsetEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.BadgeRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeBitsetRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.service.UserBadgeBitsetMigrator;
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadgeFilter;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadgePage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the bitset storage of the userBadges.
+ * <p>
+ * This test class verifies that the achieved badges of a member are saved as bits in a single row
+ * and that they are decoded into the userBadges of the course.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@TestPropertySource(properties = "gamification.badges.storage=bitset")
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class BitsetUserBadgeTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private UserBadgeBitsetRepository userBadgeBitsetRepository;
+
+    @Autowired
+    private UserBadgeBitsetMigrator userBadgeBitsetMigrator;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Tests finishing content in the bitset storage.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>No userBadges are saved, only one bitset for the user.</li>
+     *   <li>Finishing the quiz with 80% sets the bronze and silver bits of the quiz.</li>
+     *   <li>Finishing the flashCardSet with 100% sets all 3 bits of the flashCardSet in the same row.</li>
+     *   <li>The userBadges of the user are decoded from the bitset, members without a bitset get no achieved ones.</li>
+     * </ul>
+     */
+    @Test
+    void finishContentTest() {
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 8, 10, chapterUUID);
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 8, 10, chapterUUID);
+
+        assertEquals(0, userBadgeRepository.count());
+        assertEquals(1, userBadgeBitsetRepository.count());
+        UserBadgeBitsetEntity bitset = userBadgeBitsetRepository.findByCourseUUIDAndUserUUID(courseUUID, user1UUID).get();
+        assertEquals(2, bitset.getAchievedBits().cardinality());
+
+        List<UserBadge> user1UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID);
+        assertEquals(6, user1UserBadges.size());
+        assertEquals(2, user1UserBadges.stream().filter(UserBadge::getAchieved).count());
+
+        gamificationController.finishFlashCardSet(user1UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+
+        assertEquals(1, userBadgeBitsetRepository.count());
+        user1UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID);
+        assertEquals(5, user1UserBadges.stream().filter(UserBadge::getAchieved).count());
+        assertEquals(user1UserBadges, gamificationController.getCoursesUserBadges(courseUUID, user1UUID));
+
+        List<UserBadge> user2UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user2UUID);
+        assertEquals(6, user2UserBadges.size());
+        assertTrue(user2UserBadges.stream().noneMatch(UserBadge::getAchieved));
+    }
+
+    /**
+     * Tests the paginated retrieval of the userBadges in the bitset storage.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The achieved filter selects the badges, whose bits are set.</li>
+     *   <li>The two pages contain every userBadge once, ordered by the passing percentage.</li>
+     * </ul>
+     */
+    @Test
+    void userBadgePageTest() {
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 8, 10, chapterUUID);
+
+        UserBadgeFilter achievedFilter = new UserBadgeFilter();
+        achievedFilter.setAchieved(true);
+        List<UserBadge> achieved = gamificationController
+                .getCoursesUserBadgesPage(courseUUID, user1UUID, achievedFilter, 10, null).getElements();
+        assertEquals(List.of(50, 70), achieved.stream().map(UserBadge::getPassingPercentage).toList());
+
+        UserBadgePage firstPage = gamificationController.getCoursesUserBadgesPage(courseUUID, user1UUID, null, 4, null);
+        assertTrue(firstPage.getHasNext());
+        UserBadgePage secondPage = gamificationController.getCoursesUserBadgesPage(courseUUID, user1UUID, null, 4,
+                firstPage.getEndCursor());
+        assertFalse(secondPage.getHasNext());
+        List<UserBadge> userBadges = new ArrayList<>(firstPage.getElements());
+        userBadges.addAll(secondPage.getElements());
+        assertEquals(List.of(50, 50, 70, 70, 90, 90), userBadges.stream().map(UserBadge::getPassingPercentage).toList());
+        assertEquals(6, userBadges.stream().map(UserBadge::getBadgeUUID).distinct().count());
+    }
+
+    /**
+     * Tests the content ordinals of the badges.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The badges of the quiz have the ordinal 0 and the badges of the flashCardSet the ordinal 1.</li>
+     *   <li>A quiz created after deleting the first quiz gets the new ordinal 2.</li>
+     *   <li>The bits of the deleted quiz are not inherited by the badges of the new quiz.</li>
+     *   <li>Removing the user from the course deletes the bitset.</li>
+     * </ul>
+     */
+    @Test
+    void contentOrdinalTest() {
+        for (BadgeEntity badge : badgeRepository.findByQuizUUID(quizUUID)) {
+            assertEquals(0, badge.getContentOrdinal());
+        }
+        for (BadgeEntity badge : badgeRepository.findByFlashCardSetUUID(flashCardSetUUID)) {
+            assertEquals(1, badge.getContentOrdinal());
+        }
+
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.deleteBadgesAndQuestOfQuiz(quizUUID, courseUUID, chapterUUID);
+
+        UUID newQuizUUID = UUID.randomUUID();
+        gamificationController.createQuiz(newQuizUUID, "Quiz 2", courseUUID, chapterUUID, 20, List.of(SkillType.REMEMBER));
+        for (BadgeEntity badge : badgeRepository.findByQuizUUID(newQuizUUID)) {
+            assertEquals(2, badge.getContentOrdinal());
+        }
+
+        List<UserBadge> user1UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID);
+        assertEquals(6, user1UserBadges.size());
+        assertTrue(user1UserBadges.stream().noneMatch(UserBadge::getAchieved));
+
+        gamificationController.removeUserFromCourse(user1UUID, courseUUID);
+        assertTrue(userBadgeBitsetRepository.findByCourseUUIDAndUserUUID(courseUUID, user1UUID).isEmpty());
+    }
+
+    /**
+     * Tests moving the userBadges achieved in another storage into the bitsets.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The bits of the achieved userBadges are set in the one bitset of the user, the not achieved userBadges
+     *   set no bits.</li>
+     *   <li>Migrating again changes no bitset.</li>
+     *   <li>The userBadges of the user are read from the bitset as achieved.</li>
+     * </ul>
+     */
+    @Test
+    void migrateAchievedUserBadgesTest() {
+        for (BadgeEntity badge : badgeRepository.findByQuizUUID(quizUUID)) {
+            if (badge.getPassingPercentage() == 50) {
+                userBadgeRepository.upsertAchieved(user2UUID, badge.getBadgeUUID());
+            } else {
+                userBadgeRepository.insertIfAbsent(user2UUID, badge.getBadgeUUID(), false);
+            }
+        }
+        for (BadgeEntity badge : badgeRepository.findByFlashCardSetUUID(flashCardSetUUID)) {
+            if (badge.getPassingPercentage() == 90) {
+                userBadgeRepository.upsertAchieved(user2UUID, badge.getBadgeUUID());
+            }
+        }
+
+        assertEquals(1, userBadgeBitsetMigrator.migrateAchievedUserBadges());
+        assertEquals(0, userBadgeBitsetMigrator.migrateAchievedUserBadges());
+
+        List<UserBadge> user2UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user2UUID);
+        assertEquals(6, user2UserBadges.size());
+        List<UserBadge> achieved = user2UserBadges.stream().filter(UserBadge::getAchieved).toList();
+        assertEquals(2, achieved.size());
+        assertEquals(Set.of(50, 90), new HashSet<>(achieved.stream().map(UserBadge::getPassingPercentage).toList()));
+    }
+
+}
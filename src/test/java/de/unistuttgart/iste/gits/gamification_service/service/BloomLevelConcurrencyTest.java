@@ -0,0 +1,141 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.BloomLevelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Concurrency tests for the experience points of the BloomLevels.
+ * <p>
+ * This test class is not transactional, so every completion commits in its own transaction,
+ * like concurrent requests do in production.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+class BloomLevelConcurrencyTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BloomLevelRepository bloomLevelRepository;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Removes the committed test course after each test.
+     */
+    @AfterEach
+    void deleteTestCourse() {
+        gamificationController.deleteBadgesAndQuestsOfCourse(courseUUID);
+    }
+
+    /**
+     * Tests finishing the same quiz in parallel.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Every completion is applied.</li>
+     *   <li>No experience points are lost, the total is the sum of all rewards.</li>
+     * </ul>
+     */
+    @Test
+    void parallelFinishQuizTest() throws Exception {
+        int completions = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < completions; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return gamificationController.finishQuiz(lecturerUUID, courseUUID, quizUUID, 5, 10, chapterUUID);
+            }));
+        }
+        start.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("Finished quiz!", result.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // 5 of 10 correct answers for a quiz with 50 skillPoints and ANALYSE as skillType reward 50 exp
+        assertEquals(completions * 50,
+                bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID).getCollectedExp());
+    }
+
+}
@@ -241,6 +241,42 @@ class BloomLevelTest {
         assertEquals(55, user1BloomLevel.getRequiredExpForCurrentLevel());
     }
 
+    /**
+     * Tests the retrieval of the bloom level of a user, after the levels of the course changed.
+     * <p>
+     * This test verifies that the cached level thresholds of the course are rebuilt, when chapters
+     * or content are added.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The empty second chapter is finished right away, so the lecturer is level 2.</li>
+     *   <li>After adding a quiz to the second chapter, the exp for the current level is reduced by its required exp.</li>
+     * </ul>
+     */
+    @Test
+    void getUsersBloomLevelAfterChangingLevelsTest() {
+        UUID chapter2UUID = UUID.randomUUID();
+        gamificationController.finishQuiz(lecturerUUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishQuiz(lecturerUUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishQuiz(lecturerUUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+
+        assertEquals(1, gamificationController.getUsersBloomLevel(lecturerUUID, courseUUID).getLevel());
+
+        gamificationController.addChapter(courseUUID, chapter2UUID);
+
+        BloomLevel lecturerBloomLevel = gamificationController.getUsersBloomLevel(lecturerUUID, courseUUID);
+        assertEquals(2, lecturerBloomLevel.getLevel());
+        assertEquals(245, lecturerBloomLevel.getExpForCurrentLevel());
+
+        gamificationController.createQuiz(UUID.randomUUID(), "Quiz 2", courseUUID, chapter2UUID, 40, List.of(SkillType.REMEMBER));
+
+        lecturerBloomLevel = gamificationController.getUsersBloomLevel(lecturerUUID, courseUUID);
+        assertEquals(2, lecturerBloomLevel.getLevel());
+        assertEquals(300, lecturerBloomLevel.getTotalExp());
+        assertEquals(225, lecturerBloomLevel.getExpForCurrentLevel());
+        assertEquals(Integer.MAX_VALUE, lecturerBloomLevel.getRequiredExpForCurrentLevel());
+    }
+
     /**
      * Tests the retrieval of the bloom level of a user for a not existing course.
      * <p>
@@ -273,4 +309,24 @@ class BloomLevelTest {
         assertEquals(new BloomLevel(), gamificationController.getUsersBloomLevel(user, courseUUID));
     }
 
+    /**
+     * Tests rewarding a member of the course, who has no bloom level at the course.
+     * <p>
+     * This test verifies that the bloom level is created with the rewarded exp instead of dropping the exp.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The user has a bloom level with the exp of the finished quiz.</li>
+     * </ul>
+     */
+    @Test
+    void rewardExpWithoutBloomLevelTest() {
+        bloomLevelRepository.deleteByUserUUIDAndCourseUUID(user1UUID, courseUUID);
+
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+
+        assertEquals(100, bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID).getCollectedExp());
+        assertEquals(100, gamificationController.getUsersBloomLevel(user1UUID, courseUUID).getTotalExp());
+    }
+
 }
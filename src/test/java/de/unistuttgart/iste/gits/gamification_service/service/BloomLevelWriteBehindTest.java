@@ -0,0 +1,198 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.BloomLevelRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.service.BloomLevelExpBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the write-behind mode of the BloomLevels.
+ * <p>
+ * This test class verifies that buffered exp is visible to reads before it is written and
+ * that flushing writes it to the database.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@TestPropertySource(properties = {
+        "gamification.bloom-level.write-behind.enabled=true",
+        "gamification.bloom-level.write-behind.flush-interval-ms=3600000",
+        "gamification.bloom-level.bulk-update-size=2"
+})
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class BloomLevelWriteBehindTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BloomLevelRepository bloomLevelRepository;
+
+    @Autowired
+    private BloomLevelExpBuffer bloomLevelExpBuffer;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Tests finishing content in write-behind mode.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The exp is not written to the database before the flush.</li>
+     *   <li>The BloomLevel of the user already contains the pending exp.</li>
+     *   <li>After the flush, the exp is written and the BloomLevel of the user is unchanged.</li>
+     * </ul>
+     */
+    @Test
+    void finishContentWriteBehindTest() {
+        gamificationController.finishQuiz(lecturerUUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishFlashCardSet(lecturerUUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+
+        assertEquals(0, bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID).getCollectedExp());
+        assertEquals(190, bloomLevelExpBuffer.getPendingExp(lecturerUUID, courseUUID));
+        assertEquals(190, gamificationController.getUsersBloomLevel(lecturerUUID, courseUUID).getTotalExp());
+
+        bloomLevelExpBuffer.flush();
+
+        assertEquals(0, bloomLevelExpBuffer.getPendingExp(lecturerUUID, courseUUID));
+        assertEquals(190, bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID).getCollectedExp());
+        assertEquals(190, gamificationController.getUsersBloomLevel(lecturerUUID, courseUUID).getTotalExp());
+    }
+
+    /**
+     * Tests removing a user with pending exp from the course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The pending exp of the user is discarded.</li>
+     * </ul>
+     */
+    @Test
+    void removeUserWithPendingExpTest() {
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        assertEquals(100, bloomLevelExpBuffer.getPendingExp(user1UUID, courseUUID));
+
+        gamificationController.removeUserFromCourse(user1UUID, courseUUID);
+
+        assertEquals(0, bloomLevelExpBuffer.getPendingExp(user1UUID, courseUUID));
+    }
+
+    /**
+     * Tests flushing the pending exp of a member without a BloomLevel and of a user, who left the course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The BloomLevel of the member is created with the pending exp.</li>
+     *   <li>No BloomLevel is created for the user, who left the course.</li>
+     * </ul>
+     */
+    @Test
+    void flushWithoutBloomLevelTest() {
+        bloomLevelRepository.deleteByUserUUIDAndCourseUUID(user1UUID, courseUUID);
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        bloomLevelExpBuffer.add(user2UUID, courseUUID, 50);
+        gamificationController.removeUserFromCourse(user2UUID, courseUUID);
+        bloomLevelExpBuffer.add(user2UUID, courseUUID, 50);
+
+        bloomLevelExpBuffer.flush();
+
+        assertEquals(100, bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID).getCollectedExp());
+        assertNull(bloomLevelRepository.findByUserUUIDAndCourseUUID(user2UUID, courseUUID));
+    }
+
+    /**
+     * Tests flushing the pending exp of more users than fit into one chunk.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The exp of every user is written, also of the users in the last, partial chunk.</li>
+     * </ul>
+     */
+    @Test
+    void flushMultipleChunksTest() {
+        bloomLevelExpBuffer.add(lecturerUUID, courseUUID, 10);
+        bloomLevelExpBuffer.add(user1UUID, courseUUID, 20);
+        bloomLevelExpBuffer.add(user2UUID, courseUUID, 30);
+        bloomLevelExpBuffer.add(user2UUID, courseUUID, 5);
+
+        bloomLevelExpBuffer.flush();
+
+        assertEquals(10, bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID).getCollectedExp());
+        assertEquals(20, bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID).getCollectedExp());
+        assertEquals(35, bloomLevelRepository.findByUserUUIDAndCourseUUID(user2UUID, courseUUID).getCollectedExp());
+    }
+
+}
@@ -0,0 +1,247 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.*;
+import de.unistuttgart.iste.meitrex.generated.dto.ContentCompletionInput;
+import de.unistuttgart.iste.meitrex.generated.dto.ContentCompletionResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for finishing a batch of content in the GamificationService.
+ * <p>
+ * This test class verifies that the finishContentBatch mutation applies the completions of a batch
+ * in the same way as the single finishQuiz and finishFlashCardSet mutations do.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class ContentCompletionBatchTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private QuestChainRepository questChainRepository;
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private UserQuestChainRepository userQuestChainRepository;
+
+    @Autowired
+    private BloomLevelRepository bloomLevelRepository;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    private ContentCompletionInput completion(UUID userUUID, UUID courseUUID, UUID contentUUID,
+                                              int correctAnswers, int totalAnswers) {
+        ContentCompletionInput completion = new ContentCompletionInput();
+        completion.setUserUUID(userUUID);
+        completion.setCourseUUID(courseUUID);
+        completion.setChapterUUID(chapterUUID);
+        completion.setContentUUID(contentUUID);
+        completion.setCorrectAnswers(correctAnswers);
+        completion.setTotalAnswers(totalAnswers);
+        return completion;
+    }
+
+    /**
+     * Tests finishing a batch of content.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The results are returned in the order of the submitted completions.</li>
+     *   <li>Invalid completions and completions for unknown courses are rejected.</li>
+     *   <li>The completions of a user are applied in order, so the lecturer finishes two quests in one batch.</li>
+     *   <li>The experience points of several completions of a user are summed up.</li>
+     *   <li>The badges are marked as achieved depending on the percentage of correct answers.</li>
+     * </ul>
+     */
+    @Test
+    void finishContentBatchTest() {
+        List<ContentCompletionResult> results = gamificationController.finishContentBatch(List.of(
+                completion(lecturerUUID, courseUUID, quizUUID, 9, 10),
+                completion(user1UUID, courseUUID, flashCardSetUUID, 10, 10),
+                completion(user2UUID, courseUUID, quizUUID, 11, 10),
+                completion(lecturerUUID, UUID.randomUUID(), quizUUID, 9, 10),
+                completion(lecturerUUID, courseUUID, flashCardSetUUID, 10, 10)));
+
+        assertEquals(5, results.size());
+        assertEquals(List.of(true, true, false, false, true),
+                results.stream().map(ContentCompletionResult::getSuccess).toList());
+        assertEquals(user2UUID, results.get(2).getUserUUID());
+        assertEquals(quizUUID, results.get(2).getContentUUID());
+
+        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
+        assertEquals(2, questChainEntity.levelOf(userQuestChainRepository
+                .findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID)));
+        assertEquals(0, questChainEntity.levelOf(userQuestChainRepository
+                .findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user1UUID)));
+        assertEquals(0, questChainEntity.levelOf(userQuestChainRepository
+                .findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID)));
+
+        assertEquals(180, bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID).getCollectedExp());
+        assertEquals(90, bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID).getCollectedExp());
+        assertEquals(0, bloomLevelRepository.findByUserUUIDAndCourseUUID(user2UUID, courseUUID).getCollectedExp());
+
+        for (BadgeEntity badge : badgeRepository.findByCourseUUID(courseUUID)) {
+            assertTrue(userBadgeRepository.findByUserUUIDAndBadgeUUID(lecturerUUID, badge.getBadgeUUID()).isAchieved());
+            assertFalse(userBadgeRepository.findByUserUUIDAndBadgeUUID(user2UUID, badge.getBadgeUUID()).isAchieved());
+            assertEquals(flashCardSetUUID.equals(badge.getFlashCardSetUUID()),
+                    userBadgeRepository.findByUserUUIDAndBadgeUUID(user1UUID, badge.getBadgeUUID()).isAchieved());
+        }
+    }
+
+    /**
+     * Tests the badges reported as unlocked by a batch.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Each completion reports exactly the badges of its content that it achieved for the first time.</li>
+     *   <li>Invalid completions unlock no badges.</li>
+     *   <li>Finishing the same content again with a better result only reports the higher tiers.</li>
+     *   <li>Finishing the same content again with the same result reports no badges.</li>
+     * </ul>
+     */
+    @Test
+    void unlockedBadgesTest() {
+        Map<Integer, UUID> quizBadgesByPercentage = new HashMap<>();
+        for (BadgeEntity badge : badgeRepository.findByQuizUUID(quizUUID)) {
+            quizBadgesByPercentage.put(badge.getPassingPercentage(), badge.getBadgeUUID());
+        }
+
+        List<ContentCompletionResult> results = gamificationController.finishContentBatch(List.of(
+                completion(user1UUID, courseUUID, quizUUID, 6, 10),
+                completion(user2UUID, courseUUID, quizUUID, 11, 10),
+                completion(user1UUID, courseUUID, quizUUID, 10, 10),
+                completion(user1UUID, courseUUID, quizUUID, 10, 10)));
+
+        assertEquals(List.of(quizBadgesByPercentage.get(50)), results.get(0).getUnlockedBadgeUUIDs());
+        assertTrue(results.get(1).getUnlockedBadgeUUIDs().isEmpty());
+        assertEquals(Set.of(quizBadgesByPercentage.get(70), quizBadgesByPercentage.get(90)),
+                new HashSet<>(results.get(2).getUnlockedBadgeUUIDs()));
+        assertTrue(results.get(3).getUnlockedBadgeUUIDs().isEmpty());
+
+        results = gamificationController.finishContentBatch(List.of(
+                completion(user1UUID, courseUUID, quizUUID, 10, 10)));
+        assertTrue(results.get(0).getSuccess());
+        assertTrue(results.get(0).getUnlockedBadgeUUIDs().isEmpty());
+    }
+
+    /**
+     * Tests the badges reported as unlocked, when a userBadge was achieved by another transaction in the meantime.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The badge achieved by the other transaction is not reported again.</li>
+     *   <li>The other badges of the content are reported as unlocked.</li>
+     * </ul>
+     */
+    @Test
+    void unlockedBadgesAfterConcurrentAchievementTest() {
+        Map<Integer, UUID> quizBadgesByPercentage = new HashMap<>();
+        for (BadgeEntity badge : badgeRepository.findByQuizUUID(quizUUID)) {
+            quizBadgesByPercentage.put(badge.getPassingPercentage(), badge.getBadgeUUID());
+        }
+        userBadgeRepository.upsertAchieved(user1UUID, quizBadgesByPercentage.get(50));
+
+        List<ContentCompletionResult> results = gamificationController.finishContentBatch(List.of(
+                completion(user1UUID, courseUUID, quizUUID, 10, 10)));
+
+        assertTrue(results.get(0).getSuccess());
+        assertEquals(Set.of(quizBadgesByPercentage.get(70), quizBadgesByPercentage.get(90)),
+                new HashSet<>(results.get(0).getUnlockedBadgeUUIDs()));
+    }
+
+    /**
+     * Tests finishing an empty batch.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>No results are returned.</li>
+     * </ul>
+     */
+    @Test
+    void finishEmptyContentBatchTest() {
+        assertTrue(gamificationController.finishContentBatch(List.of()).isEmpty());
+    }
+
+}
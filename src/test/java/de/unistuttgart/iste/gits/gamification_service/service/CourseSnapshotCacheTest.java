@@ -0,0 +1,176 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.service.CourseSnapshot;
+import de.unistuttgart.iste.meitrex.gamification_service.service.CourseSnapshotCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the cache of the course snapshots.
+ * <p>
+ * This test class is not transactional, so the snapshots of the committed courses are shared
+ * between the calls, like between requests in production.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+class CourseSnapshotCacheTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private CourseSnapshotCache courseSnapshotCache;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Removes the committed test course after each test.
+     */
+    @AfterEach
+    void deleteTestCourse() {
+        gamificationController.deleteBadgesAndQuestsOfCourse(courseUUID);
+    }
+
+    /**
+     * Tests reading a course snapshot several times.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The first lookup loads the course, the second one is served from the cache.</li>
+     *   <li>The snapshot contains the chapters and the content of the course.</li>
+     * </ul>
+     */
+    @Test
+    void cachedSnapshotTest() {
+        double hits = courseSnapshotCache.getHits();
+        double misses = courseSnapshotCache.getMisses();
+
+        CourseSnapshot snapshot = courseSnapshotCache.get(courseUUID).orElseThrow();
+        assertEquals(misses + 1, courseSnapshotCache.getMisses());
+
+        assertSame(snapshot, courseSnapshotCache.get(courseUUID).orElseThrow());
+        assertEquals(hits + 1, courseSnapshotCache.getHits());
+
+        assertEquals(List.of(chapterUUID), snapshot.getChapters());
+        assertEquals(Set.of(quizUUID, flashCardSetUUID), snapshot.getContent());
+        assertEquals(0, snapshot.getLevelOfChapter(chapterUUID));
+    }
+
+    /**
+     * Tests reading a course snapshot after modifying the course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Adding a chapter evicts the snapshot, so the next lookup loads the course again.</li>
+     *   <li>The new snapshot contains the new chapter and the bloom level of the lecturer reflects it.</li>
+     * </ul>
+     */
+    @Test
+    void invalidatedSnapshotTest() {
+        UUID chapter2UUID = UUID.randomUUID();
+        CourseSnapshot snapshot = courseSnapshotCache.get(courseUUID).orElseThrow();
+
+        gamificationController.addChapter(courseUUID, chapter2UUID);
+
+        double misses = courseSnapshotCache.getMisses();
+        CourseSnapshot newSnapshot = courseSnapshotCache.get(courseUUID).orElseThrow();
+        assertEquals(misses + 1, courseSnapshotCache.getMisses());
+        assertNotSame(snapshot, newSnapshot);
+        assertEquals(List.of(chapterUUID, chapter2UUID), newSnapshot.getChapters());
+        assertEquals(1, newSnapshot.getLevelOfChapter(chapter2UUID));
+    }
+
+    /**
+     * Tests reading a course snapshot after users joined and left the course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The snapshot does not contain the members, so it stays cached.</li>
+     * </ul>
+     */
+    @Test
+    void enrollmentKeepsSnapshotTest() {
+        CourseSnapshot snapshot = courseSnapshotCache.get(courseUUID).orElseThrow();
+
+        gamificationController.addUserToCourse(UUID.randomUUID(), courseUUID);
+        gamificationController.removeUserFromCourse(user1UUID, courseUUID);
+
+        double hits = courseSnapshotCache.getHits();
+        assertSame(snapshot, courseSnapshotCache.get(courseUUID).orElseThrow());
+        assertEquals(hits + 1, courseSnapshotCache.getHits());
+    }
+
+}
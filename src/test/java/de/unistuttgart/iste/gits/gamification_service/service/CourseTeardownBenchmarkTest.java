@@ -0,0 +1,176 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.*;
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Test for deleting a course with many members and badges.
+ * <p>
+ * This test class verifies that deleting a course removes all of its dependent rows with bulk deletes,
+ * so the number of statements does not depend on the number of members of the course.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class CourseTeardownBenchmarkTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private UserQuestChainRepository userQuestChainRepository;
+
+    @Autowired
+    private BloomLevelRepository bloomLevelRepository;
+
+    @Autowired
+    private ContentMetaDataRepository contentMetaDataRepository;
+
+    @Autowired
+    private CourseMembershipRepository courseMembershipRepository;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final int USERS = 500;
+
+    private static final int SMALL_COURSE_USERS = 10;
+
+    private static final int QUIZZES = 20;
+
+
+    private UUID smallCourseUUID;
+    private UUID largeCourseUUID;
+
+    /**
+     * Sets up a small and a large test course, which only differ in the number of their members, before each test.
+     */
+    @BeforeEach
+    void createTestCourses() {
+        this.smallCourseUUID = createTestCourse(SMALL_COURSE_USERS);
+        this.largeCourseUUID = createTestCourse(USERS);
+        userBadgeRepository.flush();
+    }
+
+    private UUID createTestCourse(int users) {
+        UUID courseUUID = UUID.randomUUID();
+        UUID chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                UUID.randomUUID(),
+                chapterUUID);
+
+        for (int i = 0; i < QUIZZES; i++) {
+            gamificationController.createQuiz(UUID.randomUUID(), "Quiz " + (i + 2), courseUUID, chapterUUID,
+                    10, List.of(SkillType.REMEMBER));
+        }
+        for (int i = 0; i < users; i++) {
+            gamificationController.addUserToCourse(UUID.randomUUID(), courseUUID);
+        }
+        return courseUUID;
+    }
+
+    /**
+     * Deletes the course and counts the prepared statements of the teardown.
+     *
+     * @param courseUUID     the id of the course
+     *
+     * @return the number of prepared statements
+     */
+    private long deleteCourse(UUID courseUUID) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals("Course deleted.", gamificationController.deleteBadgesAndQuestsOfCourse(courseUUID));
+        userBadgeRepository.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Deletes the small and the large course and compares the statements of their teardowns.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>All badges, userBadges, userQuestChains, bloomLevels, memberships and content of the courses are deleted.</li>
+     *   <li>Both teardowns prepare the same number of statements, so no row of a member is deleted one by one.</li>
+     * </ul>
+     */
+    @Test
+    void deleteCourseBenchmarkTest() {
+        assertEquals((SMALL_COURSE_USERS + 3 + USERS + 3) * (QUIZZES + 2) * 3, userBadgeRepository.count());
+
+        long smallCourseStatements = deleteCourse(smallCourseUUID);
+        long largeCourseStatements = deleteCourse(largeCourseUUID);
+        assertEquals(smallCourseStatements, largeCourseStatements);
+
+        assertEquals(0, userBadgeRepository.count());
+        assertEquals(0, userQuestChainRepository.count());
+        assertEquals(0, bloomLevelRepository.count());
+        for (UUID courseUUID : List.of(smallCourseUUID, largeCourseUUID)) {
+            assertTrue(badgeRepository.findByCourseUUID(courseUUID).isEmpty());
+            assertEquals(0, courseMembershipRepository.countByCourseUUID(courseUUID));
+            assertTrue(contentMetaDataRepository.findByCourseUUID(courseUUID).isEmpty());
+        }
+    }
+
+}
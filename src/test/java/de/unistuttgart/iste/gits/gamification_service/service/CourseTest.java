@@ -18,8 +18,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -80,6 +82,9 @@ class CourseTest {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private CourseMembershipRepository courseMembershipRepository;
+
     @Autowired
     private QuestChainRepository questChainRepository;
 
@@ -153,10 +158,10 @@ class CourseTest {
         Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         assertTrue(courseEntity.isPresent());
 
-        assertEquals(3, courseEntity.get().getUserUUIDs().size());
-        assertTrue(courseEntity.get().getUserUUIDs().contains(lecturerUUID));
-        assertTrue(courseEntity.get().getUserUUIDs().contains(user1UUID));
-        assertTrue(courseEntity.get().getUserUUIDs().contains(user2UUID));
+        assertEquals(3, courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).size());
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(lecturerUUID));
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(user1UUID));
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(user2UUID));
 
         assertEquals(1, courseEntity.get().getChapters().size());
         assertTrue(courseEntity.get().getChapters().contains(chapterUUID));
@@ -176,10 +181,13 @@ class CourseTest {
             assertTrue(50 == badgeEntity.getPassingPercentage()
             || 70 == badgeEntity.getPassingPercentage()
             || 90 == badgeEntity.getPassingPercentage());
-            assertTrue(badgeEntity.getDescription().equals(BadgeService.descriptionPart1 +
-                    badgeEntity.getPassingPercentage() + BadgeService.descriptionPart2 + "quiz Quiz 1" + BadgeService.descriptionPart3) ||
-                    badgeEntity.getDescription().equals(BadgeService.descriptionPart1 +
-                    badgeEntity.getPassingPercentage() + BadgeService.descriptionPart2 + "flashCardSet FCS 1" + BadgeService.descriptionPart3));
+        }
+
+        List<UserBadge> user1UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID);
+        assertEquals(6, user1UserBadges.size());
+        Map<UserBadge, String> descriptions = gamificationController.description(user1UserBadges);
+        for (UserBadge userBadge : user1UserBadges) {
+            assertBadgeDescription(userBadge, descriptions.get(userBadge));
         }
 
         assertEquals(18, userBadgeRepository.count());
@@ -197,17 +205,20 @@ class CourseTest {
         assertEquals(courseUUID, questChainEntity.getCourseUUID());
         assertEquals(2, questChainEntity.size());
 
+        UserQuestChain user1QuestChain = gamificationController.getUserQuestChain(user1UUID, courseUUID);
+        List<Quest> user1Quests = gamificationController.quests(List.of(user1QuestChain)).get(user1QuestChain);
+
         QuestEntity firstQuest = questChainEntity.getQuest(0);
         assertEquals(quizUUID, firstQuest.getQuizUUID());
         assertNull(firstQuest.getFlashCardSetUUID());
-        assertEquals(QuestService.descriptionPart1 + "quiz Quiz 1" + QuestService.descriptionPart2
-                + QuestService.passingPercentage + QuestService.descriptionPart3, firstQuest.getDescription());
+        assertEquals("Finish quiz Quiz 1 with at least 80% correct answers to unlock the next quest!",
+                user1Quests.get(0).getDescription());
 
         QuestEntity secondQuest = questChainEntity.getQuest(1);
         assertEquals(flashCardSetUUID, secondQuest.getFlashCardSetUUID());
         assertNull(secondQuest.getQuizUUID());
-        assertEquals(QuestService.descriptionPart1 + "flashCardSet FCS 1" + QuestService.descriptionPart2
-                + QuestService.passingPercentage + QuestService.descriptionPart3, secondQuest.getDescription());
+        assertEquals("Finish flashCardSet FCS 1 with at least 80% correct answers to unlock the next quest!",
+                user1Quests.get(1).getDescription());
 
         assertEquals(3, userQuestChainRepository.count());
         for (UserQuestChainEntity userQuestChainEntity : userQuestChainRepository.findAll()) {
@@ -215,7 +226,7 @@ class CourseTest {
             assertTrue(lecturerUUID.equals(userQuestChainEntity.getUserUUID())
             || user1UUID.equals(userQuestChainEntity.getUserUUID())
             || user2UUID.equals(userQuestChainEntity.getUserUUID()));
-            assertEquals(0, userQuestChainEntity.getUserLevel());
+            assertEquals(0, questChainEntity.levelOf(userQuestChainEntity));
         }
 
         List<BloomLevelEntity> bloomLevelEntities = bloomLevelRepository.findAll();
@@ -237,10 +248,16 @@ class CourseTest {
         assertTrue(flashCardSetMetaData.isPresent());
         assertEquals(SkillType.APPLY, flashCardSetMetaData.get().getSkillType());
         assertEquals(60, flashCardSetMetaData.get().getSkillPoints());
+        assertEquals(courseUUID, flashCardSetMetaData.get().getCourseUUID());
+        assertEquals(chapterUUID, flashCardSetMetaData.get().getChapterUUID());
+        assertEquals(Integer.valueOf(0), flashCardSetMetaData.get().getLevel());
 
         assertTrue(quizMetaData.isPresent());
         assertEquals(SkillType.ANALYSE, quizMetaData.get().getSkillType());
         assertEquals(50, quizMetaData.get().getSkillPoints());
+        assertEquals(courseUUID, quizMetaData.get().getCourseUUID());
+        assertEquals(chapterUUID, quizMetaData.get().getChapterUUID());
+        assertEquals(Integer.valueOf(0), quizMetaData.get().getLevel());
     }
 
     /**
@@ -267,8 +284,8 @@ class CourseTest {
         Optional<CourseEntity> courseEntity = courseRepository.findById(course);
         assertEquals(2, courseRepository.findAll().size());
         assertTrue(courseEntity.isPresent());
-        assertEquals(1, courseEntity.get().getUserUUIDs().size());
-        assertTrue(courseEntity.get().getUserUUIDs().contains(lecturer));
+        assertEquals(1, courseMembershipRepository.findUserUUIDsByCourseUUID(course).size());
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(course).contains(lecturer));
         assertEquals(0, courseEntity.get().getRequiredExpOfLevel(0));
 
         QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(course);
@@ -282,7 +299,7 @@ class CourseTest {
         assertNotNull(userQuestChainEntity);
         assertEquals(lecturer, userQuestChainEntity.getUserUUID());
         assertEquals(questChainEntity.getQuestChainUUID(), userQuestChainEntity.getQuestChainUUID());
-        assertEquals(0, userQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(userQuestChainEntity));
 
         List<BloomLevelEntity> bloomLevelEntities = bloomLevelRepository.findAll();
         assertEquals(4, bloomLevelEntities.size());
@@ -312,10 +329,10 @@ class CourseTest {
         Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         assertTrue(courseEntity.isPresent());
 
-        assertEquals(3, courseEntity.get().getUserUUIDs().size());
-        assertTrue(courseEntity.get().getUserUUIDs().contains(lecturerUUID));
-        assertTrue(courseEntity.get().getUserUUIDs().contains(user1UUID));
-        assertTrue(courseEntity.get().getUserUUIDs().contains(user2UUID));
+        assertEquals(3, courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).size());
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(lecturerUUID));
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(user1UUID));
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(user2UUID));
 
         assertEquals(1, courseEntity.get().getChapters().size());
         assertTrue(courseEntity.get().getChapters().contains(chapterUUID));
@@ -370,8 +387,8 @@ class CourseTest {
         Optional<CourseEntity> courseEntity = courseRepository.findById(course);
         assertEquals(2, courseRepository.findAll().size());
         assertTrue(courseEntity.isPresent());
-        assertEquals(1, courseEntity.get().getUserUUIDs().size());
-        assertTrue(courseEntity.get().getUserUUIDs().contains(lecturer));
+        assertEquals(1, courseMembershipRepository.findUserUUIDsByCourseUUID(course).size());
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(course).contains(lecturer));
         assertTrue(courseEntity.get().getRequiredExpPerLevel().isEmpty());
 
         List<BloomLevelEntity> bloomLevelEntities = bloomLevelRepository.findAll();
@@ -401,14 +418,14 @@ class CourseTest {
 
         Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         assertTrue(courseEntity.isPresent());
-        assertEquals(4, courseEntity.get().getUserUUIDs().size());
+        assertEquals(4, courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).size());
 
         QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
         UserQuestChainEntity userQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user);
         assertEquals(4, userQuestChainRepository.findAll().size());
         assertNotNull(userQuestChainEntity);
-        assertEquals(0, userQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(userQuestChainEntity));
         assertEquals(user, userQuestChainEntity.getUserUUID());
         assertEquals(questChainEntity.getQuestChainUUID(), userQuestChainEntity.getQuestChainUUID());
 
@@ -477,14 +494,14 @@ class CourseTest {
 
         Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         assertTrue(courseEntity.isPresent());
-        assertEquals(3, courseEntity.get().getUserUUIDs().size());
+        assertEquals(3, courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).size());
 
         QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
         UserQuestChainEntity userQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user1UUID);
         assertEquals(3, userQuestChainRepository.findAll().size());
         assertNotNull(userQuestChainEntity);
-        assertEquals(0, userQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(userQuestChainEntity));
         assertEquals(user1UUID, userQuestChainEntity.getUserUUID());
         assertEquals(questChainEntity.getQuestChainUUID(), userQuestChainEntity.getQuestChainUUID());
 
@@ -582,35 +599,30 @@ class CourseTest {
         assertEquals(6, user1UserBadges.size());
         assertEquals(6, user2UserBadges.size());
 
+        List<UserBadge> userBadges = new ArrayList<>(lecturersUserBadges);
+        userBadges.addAll(user1UserBadges);
+        userBadges.addAll(user2UserBadges);
+        Map<UserBadge, String> descriptions = gamificationController.description(userBadges);
+        assertEquals(18, descriptions.size());
+
         for (UserBadge badge : lecturersUserBadges) {
             assertTrue(badgeRepository.findById(badge.getBadgeUUID()).isPresent());
             assertEquals(lecturerUUID, badge.getUserUUID());
-            assertTrue(badge.getDescription().equals(BadgeService.descriptionPart1 + badge.getPassingPercentage()
-                            + BadgeService.descriptionPart2 + "quiz Quiz 1" + BadgeService.descriptionPart3) ||
-                       badge.getDescription().equals(BadgeService.descriptionPart1 + badge.getPassingPercentage()
-                               + BadgeService.descriptionPart2 + "flashCardSet FCS 1" + BadgeService.descriptionPart3));
+            assertBadgeDescription(badge, descriptions.get(badge));
             assertFalse(badge.getAchieved());
         }
 
         for (UserBadge badge : user1UserBadges) {
             assertTrue(badgeRepository.findById(badge.getBadgeUUID()).isPresent());
             assertEquals(user1UUID, badge.getUserUUID());
-            assertTrue(badge.getDescription().equals(BadgeService.descriptionPart1 + badge.getPassingPercentage()
-                    + BadgeService.descriptionPart2 + "quiz Quiz 1" + BadgeService.descriptionPart3) ||
-                    badge.getDescription().equals(BadgeService.descriptionPart1 + badge.getPassingPercentage()
-                            + BadgeService.descriptionPart2 + "flashCardSet FCS 1" + BadgeService.descriptionPart3)
-            );
+            assertBadgeDescription(badge, descriptions.get(badge));
             assertFalse(badge.getAchieved());
         }
 
         for (UserBadge badge : user2UserBadges) {
             assertTrue(badgeRepository.findById(badge.getBadgeUUID()).isPresent());
             assertEquals(user2UUID, badge.getUserUUID());
-            assertTrue(badge.getDescription().equals(BadgeService.descriptionPart1 + badge.getPassingPercentage()
-                    + BadgeService.descriptionPart2 + "quiz Quiz 1" + BadgeService.descriptionPart3) ||
-                    badge.getDescription().equals(BadgeService.descriptionPart1 + badge.getPassingPercentage()
-                            + BadgeService.descriptionPart2 + "flashCardSet FCS 1" + BadgeService.descriptionPart3)
-            );
+            assertBadgeDescription(badge, descriptions.get(badge));
             assertTrue(badge.getAchieved());
         }
     }
@@ -691,15 +703,15 @@ class CourseTest {
         assertNull(lecturerQuest.getQuizUUID());
         assertEquals(flashCardSetUUID, lecturerQuest.getFlashCardSetUUID());
         assertEquals(1, lecturerQuest.getLevel());
-        assertEquals(QuestService.descriptionPart1 + "flashCardSet FCS 1" +
-                QuestService.descriptionPart2 + 80 + QuestService.descriptionPart3, lecturerQuest.getDescription());
+        assertEquals("Finish flashCardSet FCS 1 with at least 80% correct answers to unlock the next quest!",
+                lecturerQuest.getDescription());
 
         assertFalse(user1Quest.getFinished());
         assertEquals(quizUUID, user1Quest.getQuizUUID());
         assertNull(user1Quest.getFlashCardSetUUID());
         assertEquals(0, user1Quest.getLevel());
-        assertEquals(QuestService.descriptionPart1 + "quiz Quiz 1" +
-                QuestService.descriptionPart2 + 80 + QuestService.descriptionPart3, user1Quest.getDescription());
+        assertEquals("Finish quiz Quiz 1 with at least 80% correct answers to unlock the next quest!",
+                user1Quest.getDescription());
 
         assertTrue(user2Quest.getFinished());
         assertNull(user2Quest.getQuizUUID());
@@ -767,25 +779,27 @@ class CourseTest {
         gamificationController.finishQuiz(user2UUID, courseUUID, quizUUID, 5, 5, chapterUUID);
         gamificationController.finishFlashCardSet(user2UUID, courseUUID, flashCardSetUUID, 5, 5, chapterUUID);
         UserQuestChain user2QuestChain = gamificationController.getUserQuestChain(user2UUID, courseUUID);
+        Map<UserQuestChain, List<Quest>> quests = gamificationController.quests(
+                List.of(lecturerQuestChain, user1QuestChain, user2QuestChain));
 
         assertTrue(questChainRepository.findById(lecturerQuestChain.getQuestChainUUID()).isPresent());
         assertEquals(lecturerUUID, lecturerQuestChain.getUserUUID());
-        assertNotNull(lecturerQuestChain.getQuests());
-        assertEquals(2, lecturerQuestChain.getQuests().size());
+        assertNotNull(quests.get(lecturerQuestChain));
+        assertEquals(2, quests.get(lecturerQuestChain).size());
         assertEquals(1, lecturerQuestChain.getUserLevel());
         assertFalse(lecturerQuestChain.getFinished());
 
         assertTrue(questChainRepository.findById(user1QuestChain.getQuestChainUUID()).isPresent());
         assertEquals(user1UUID, user1QuestChain.getUserUUID());
-        assertNotNull(user1QuestChain.getQuests());
-        assertEquals(2, user1QuestChain.getQuests().size());
+        assertNotNull(quests.get(user1QuestChain));
+        assertEquals(2, quests.get(user1QuestChain).size());
         assertEquals(0, user1QuestChain.getUserLevel());
         assertFalse(user1QuestChain.getFinished());
 
         assertTrue(questChainRepository.findById(user2QuestChain.getQuestChainUUID()).isPresent());
         assertEquals(user2UUID, user2QuestChain.getUserUUID());
-        assertNotNull(user2QuestChain.getQuests());
-        assertEquals(2, user2QuestChain.getQuests().size());
+        assertNotNull(quests.get(user2QuestChain));
+        assertEquals(2, quests.get(user2QuestChain).size());
         assertEquals(2, user2QuestChain.getUserLevel());
         assertTrue(user2QuestChain.getFinished());
     }
@@ -844,9 +858,9 @@ class CourseTest {
 
         Optional<CourseEntity> course = courseRepository.findById(courseUUID);
         assertTrue(course.isPresent());
-        assertEquals(2, course.get().getUserUUIDs().size());
-        assertTrue(course.get().getUserUUIDs().contains(user1UUID));
-        assertTrue(course.get().getUserUUIDs().contains(user2UUID));
+        assertEquals(2, courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).size());
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(user1UUID));
+        assertTrue(courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).contains(user2UUID));
 
         List<UserBadgeEntity> allUserBadges = userBadgeRepository.findAll();
         assertEquals(12, allUserBadges.size());
@@ -904,8 +918,55 @@ class CourseTest {
 
         Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
         assertTrue(courseEntity.isPresent());
-        assertEquals(3, courseEntity.get().getUserUUIDs().size());
+        assertEquals(3, courseMembershipRepository.findUserUUIDsByCourseUUID(courseUUID).size());
+
+    }
 
+    /**
+     * Tests the descriptions of content, whose name is unknown.
+     * <p>
+     * This test checks that badges and quests of content without a stored name, for example content whose
+     * description could not be migrated, still get a description.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The descriptions of the badges and the quest of the quiz name the quiz without its name.</li>
+     * </ul>
+     */
+    @Test
+    void getDescriptionsOfContentWithoutNameTest() {
+
+        ContentMetaDataEntity quizMetaData = contentMetaDataRepository.findById(quizUUID).get();
+        quizMetaData.setName(null);
+        contentMetaDataRepository.saveAndFlush(quizMetaData);
+
+        Quest user1Quest = gamificationController.getCurrentUserQuest(user1UUID, courseUUID);
+        assertEquals("Finish quiz with at least 80% correct answers to unlock the next quest!",
+                user1Quest.getDescription());
+
+        List<UserBadge> userBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID);
+        Map<UserBadge, String> descriptions = gamificationController.description(userBadges);
+        for (UserBadge userBadge : userBadges) {
+            if (badgeRepository.findById(userBadge.getBadgeUUID()).get().getQuizUUID() != null) {
+                assertEquals("At least " + userBadge.getPassingPercentage()
+                        + "% of your answers for the quiz are correct.", descriptions.get(userBadge));
+            }
+        }
+
+    }
+
+    /**
+     * Asserts that the description of a user badge of the test course names its content and passing percentage.
+     *
+     * @param userBadge   the user badge of the quiz or the flashCardSet of the test course
+     * @param description the description rendered for the user badge
+     */
+    private void assertBadgeDescription(UserBadge userBadge, String description) {
+        String content = badgeRepository.findById(userBadge.getBadgeUUID()).get().getQuizUUID() != null
+                ? "quiz Quiz 1"
+                : "flashCardSet FCS 1";
+        assertEquals("At least " + userBadge.getPassingPercentage() + "% of your answers for the "
+                + content + " are correct.", description);
     }
 
-}
\ No newline at end of file
+}
@@ -6,7 +6,10 @@ import de.unistuttgart.iste.meitrex.gamification_service.controller.Gamification
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.*;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.*;
 import de.unistuttgart.iste.meitrex.gamification_service.service.*;
+import de.unistuttgart.iste.meitrex.generated.dto.Quest;
 import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
+import de.unistuttgart.iste.meitrex.generated.dto.UserQuestChain;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -162,20 +165,32 @@ class FlashCardSetTest {
         assertEquals(9, badgeRepository.count());
         List<BadgeEntity> fcsBadges = badgeRepository.findByFlashCardSetUUID(flashCardSet);
         assertEquals(3, fcsBadges.size());
+        String contentName = contentMetaDataRepository.findById(flashCardSet).get().getName();
+        assertEquals(name, contentName);
 
         List<UserBadgeEntity> fcsUserBadges = new LinkedList<>();
+        Set<UUID> badgeUUIDs = new HashSet<>();
         for (BadgeEntity badge : fcsBadges) {
             int passingPercentage = badge.getPassingPercentage();
             assertEquals(courseUUID, badge.getCourseUUID());
             assertTrue(50 == passingPercentage || 70 == passingPercentage || 90 == passingPercentage);
             assertEquals(flashCardSet, badge.getFlashCardSetUUID());
             assertNull(badge.getQuizUUID());
-            assertEquals(BadgeService.descriptionPart1 + passingPercentage + BadgeService.descriptionPart2 +
-                    "flashCardSet " + name + BadgeService.descriptionPart3, badge.getDescription());
+            badgeUUIDs.add(badge.getBadgeUUID());
 
             fcsUserBadges.addAll(userBadgeRepository.findByBadgeUUID(badge.getBadgeUUID()));
         }
 
+        List<UserBadge> userBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID).stream()
+                .filter(userBadge -> badgeUUIDs.contains(userBadge.getBadgeUUID()))
+                .toList();
+        assertEquals(3, userBadges.size());
+        Map<UserBadge, String> descriptions = gamificationController.description(userBadges);
+        for (UserBadge userBadge : userBadges) {
+            assertEquals("At least " + userBadge.getPassingPercentage()
+                    + "% of your answers for the flashCardSet FCS 2 are correct.", descriptions.get(userBadge));
+        }
+
         assertEquals(27, userBadgeRepository.count());
         assertEquals(9, fcsUserBadges.size());
         for (UserBadgeEntity userBadge : fcsUserBadges) {
@@ -521,9 +536,9 @@ class FlashCardSetTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -569,9 +584,9 @@ class FlashCardSetTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -618,9 +633,9 @@ class FlashCardSetTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -669,9 +684,9 @@ class FlashCardSetTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(4, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -718,9 +733,9 @@ class FlashCardSetTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -747,17 +762,27 @@ class FlashCardSetTest {
 
         List<BadgeEntity> fcsBadges = badgeRepository.findByFlashCardSetUUID(flashCardSetUUID);
         assertEquals(3, fcsBadges.size());
+        Set<UUID> badgeUUIDs = new HashSet<>();
         for (BadgeEntity badge : fcsBadges) {
-            int passingPercentage = badge.getPassingPercentage();
-            assertEquals(BadgeService.descriptionPart1 + passingPercentage + BadgeService.descriptionPart2 +
-                    "flashCardSet " + newName + BadgeService.descriptionPart3, badge.getDescription());
+            badgeUUIDs.add(badge.getBadgeUUID());
+        }
+        List<UserBadge> userBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID).stream()
+                .filter(userBadge -> badgeUUIDs.contains(userBadge.getBadgeUUID()))
+                .toList();
+        assertEquals(3, userBadges.size());
+        Map<UserBadge, String> descriptions = gamificationController.description(userBadges);
+        for (UserBadge userBadge : userBadges) {
+            int passingPercentage = userBadge.getPassingPercentage();
+            assertEquals("At least " + passingPercentage + "% of your answers for the flashCardSet New Name are correct.",
+                    descriptions.get(userBadge));
         }
 
         QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
         int index = questChainEntity.findIndexOfFlashCardSetQuest(flashCardSetUUID);
-        QuestEntity quest = questChainEntity.getQuest(index);
-        assertEquals(QuestService.descriptionPart1 + "flashCardSet " + newName +
-                QuestService.descriptionPart2 + 80 + QuestService.descriptionPart3, quest.getDescription());
+        UserQuestChain userQuestChain = gamificationController.getUserQuestChain(user1UUID, courseUUID);
+        Quest quest = gamificationController.quests(List.of(userQuestChain)).get(userQuestChain).get(index);
+        assertEquals("Finish flashCardSet New Name with at least 80% correct answers to unlock the next quest!",
+                quest.getDescription());
 
         Optional<ContentMetaDataEntity> flashCardSetMetaData = contentMetaDataRepository.findById(flashCardSetUUID);
 
@@ -1149,9 +1174,9 @@ class FlashCardSetTest {
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user1UUID);
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(0, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user2QuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         BloomLevelEntity user1BloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID);
@@ -1197,7 +1222,7 @@ class FlashCardSetTest {
         UserQuestChainEntity lecturerQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
@@ -1221,7 +1246,7 @@ class FlashCardSetTest {
         questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
         lecturerQuestChainEntity = userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
@@ -1263,7 +1288,7 @@ class FlashCardSetTest {
         UserQuestChainEntity lecturerQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
@@ -1364,7 +1389,7 @@ class FlashCardSetTest {
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(questChainEntity);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, course);
         assertNotNull(lecturerBloomLevel);
@@ -1407,7 +1432,7 @@ class FlashCardSetTest {
         UserQuestChainEntity lecturerQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
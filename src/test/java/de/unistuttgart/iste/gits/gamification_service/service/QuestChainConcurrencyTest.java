@@ -0,0 +1,166 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.QuestChainEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.QuestEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.QuestChainRepository;
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Concurrency tests for the positions of the quests of a quest chain.
+ * <p>
+ * This test class is not transactional, so every completion commits in its own transaction,
+ * like concurrent requests do in production.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+class QuestChainConcurrencyTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private QuestChainRepository questChainRepository;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Removes the committed test course after each test.
+     */
+    @AfterEach
+    void deleteTestCourse() {
+        gamificationController.deleteBadgesAndQuestsOfCourse(courseUUID);
+    }
+
+    /**
+     * Tests moving quests while users finish them in parallel.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Every move and every completion is applied without a deadlock.</li>
+     *   <li>The repeated moves to the front use up the gap and rebalance the chain, and still every quest keeps
+     *   a position of its own.</li>
+     * </ul>
+     */
+    @Test
+    void parallelMoveAndFinishQuestTest() throws Exception {
+        List<UUID> quizUUIDs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            UUID newQuizUUID = UUID.randomUUID();
+            gamificationController.createQuiz(newQuizUUID, "Quiz " + (i + 2), courseUUID, chapterUUID, 10,
+                    List.of(SkillType.REMEMBER));
+            quizUUIDs.add(newQuizUUID);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> moves = new ArrayList<>();
+        List<Future<String>> completions = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            UUID movedQuizUUID = quizUUIDs.get(i % quizUUIDs.size());
+            moves.add(executor.submit(() -> {
+                start.await();
+                return gamificationController.moveQuest(courseUUID, movedQuizUUID, 0);
+            }));
+            UUID finishedQuizUUID = quizUUIDs.get((i + 3) % quizUUIDs.size());
+            UUID userUUID = i % 2 == 0 ? user1UUID : user2UUID;
+            completions.add(executor.submit(() -> {
+                start.await();
+                return gamificationController.finishQuiz(userUUID, courseUUID, finishedQuizUUID, 10, 10, chapterUUID);
+            }));
+        }
+        start.countDown();
+
+        for (Future<String> move : moves) {
+            assertEquals("Quest moved.", move.get(60, TimeUnit.SECONDS));
+        }
+        for (Future<String> completion : completions) {
+            assertEquals("Finished quiz!", completion.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        UUID questChainUUID = questChainRepository.findQuestChainUUIDByCourseUUID(courseUUID).orElseThrow();
+        QuestChainEntity questChain = questChainRepository.findWithQuestsByQuestChainUUIDIn(List.of(questChainUUID)).get(0);
+        assertEquals(10, questChain.size());
+        Set<Integer> positions = new HashSet<>();
+        for (QuestEntity quest : questChain.getQuests()) {
+            assertTrue(positions.add(quest.getChainPosition()));
+        }
+    }
+
+}
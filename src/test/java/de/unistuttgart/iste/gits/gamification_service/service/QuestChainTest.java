@@ -0,0 +1,406 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.QuestChainEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.QuestEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserQuestChainEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.QuestChainRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserQuestChainRepository;
+import de.unistuttgart.iste.meitrex.generated.dto.Quest;
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the order of the quests in the quest chain of a course.
+ * <p>
+ * This test class verifies that the quests keep their order when the quest chain is reloaded
+ * and that the current quest of a user is the quest at the level of the user.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class QuestChainTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private QuestChainRepository questChainRepository;
+
+    @Autowired
+    private UserQuestChainRepository userQuestChainRepository;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+    @Autowired
+    private EntityManager entityManager;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    private List<UUID> reloadedQuestContent() {
+        entityManager.flush();
+        entityManager.clear();
+        QuestChainEntity questChain = questChainRepository.findByCourseUUID(courseUUID);
+        List<UUID> contentUUIDs = new ArrayList<>();
+        for (QuestEntity quest : questChain.getQuests()) {
+            contentUUIDs.add(quest.getQuizUUID() != null ? quest.getQuizUUID() : quest.getFlashCardSetUUID());
+        }
+        return contentUUIDs;
+    }
+
+    /**
+     * Tests the order of the quests after adding and deleting content.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The reloaded quest chain contains the quests in the order, in which the content was created.</li>
+     *   <li>Deleting a quest keeps the order of the remaining quests.</li>
+     * </ul>
+     */
+    @Test
+    void questOrderTest() {
+        UUID quiz2UUID = UUID.randomUUID();
+        UUID flashCardSet2UUID = UUID.randomUUID();
+        gamificationController.createQuiz(quiz2UUID, "Quiz 2", courseUUID, chapterUUID, 30, List.of(SkillType.REMEMBER));
+        gamificationController.createFlashCardSet(flashCardSet2UUID, "FCS 2", courseUUID, chapterUUID, 30,
+                List.of(SkillType.REMEMBER));
+
+        assertEquals(List.of(quizUUID, flashCardSetUUID, quiz2UUID, flashCardSet2UUID), reloadedQuestContent());
+
+        assertEquals("Quiz deleted.", gamificationController.deleteBadgesAndQuestOfQuiz(quizUUID, courseUUID, chapterUUID));
+        assertEquals(List.of(flashCardSetUUID, quiz2UUID, flashCardSet2UUID), reloadedQuestContent());
+    }
+
+    /**
+     * Tests the current quest of a user while the user finishes the quests.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The current quest is the quest at the level of the user.</li>
+     *   <li>After the last quest, the user finished all quests.</li>
+     * </ul>
+     */
+    @Test
+    void currentQuestTest() {
+        Quest quest = gamificationController.getCurrentUserQuest(user1UUID, courseUUID);
+        assertEquals(quizUUID, quest.getQuizUUID());
+        assertEquals(0, quest.getLevel());
+
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        entityManager.flush();
+        entityManager.clear();
+        quest = gamificationController.getCurrentUserQuest(user1UUID, courseUUID);
+        assertEquals(flashCardSetUUID, quest.getFlashCardSetUUID());
+        assertEquals(1, quest.getLevel());
+        assertFalse(quest.getFinished());
+
+        gamificationController.finishFlashCardSet(user1UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+        entityManager.flush();
+        entityManager.clear();
+        quest = gamificationController.getCurrentUserQuest(user1UUID, courseUUID);
+        assertTrue(quest.getFinished());
+        assertEquals(2, quest.getLevel());
+    }
+
+    /**
+     * Tests finding the quests of content in the quest chain.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The quest of a content is found at its position, also after a quest was added.</li>
+     *   <li>After deleting a quest, the quests behind it are found one position earlier.</li>
+     *   <li>A quiz is not found as flashCardSet and vice versa.</li>
+     * </ul>
+     */
+    @Test
+    void questPositionIndexTest() {
+        UUID quiz2UUID = UUID.randomUUID();
+        QuestChainEntity questChain = questChainRepository.findByCourseUUID(courseUUID);
+        assertEquals(0, questChain.findIndexOfQuizQuest(quizUUID));
+        assertEquals(1, questChain.findIndexOfFlashCardSetQuest(flashCardSetUUID));
+        assertEquals(-1, questChain.findIndexOfFlashCardSetQuest(quizUUID));
+        assertEquals(-1, questChain.findIndexOfContentQuest(UUID.randomUUID()));
+
+        QuestEntity quest = new QuestEntity();
+        quest.setQuizUUID(quiz2UUID);
+        questChain.addQuest(quest);
+        assertEquals(2, questChain.findIndexOfQuizQuest(quiz2UUID));
+
+        assertEquals(0, questChain.removeQuestOfQuiz(quizUUID));
+        assertEquals(-1, questChain.findIndexOfQuizQuest(quizUUID));
+        assertEquals(0, questChain.findIndexOfFlashCardSetQuest(flashCardSetUUID));
+        assertEquals(1, questChain.findIndexOfQuizQuest(quiz2UUID));
+    }
+
+    /**
+     * Tests finishing content, whose quest is not the current quest of the user.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Finishing the flashCardSet before the quiz does not progress the user.</li>
+     *   <li>Finishing the quiz and then the flashCardSet finishes both quests.</li>
+     * </ul>
+     */
+    @Test
+    void finishQuestOutOfOrderTest() {
+        gamificationController.finishFlashCardSet(user1UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+        assertEquals(0, gamificationController.getCurrentUserQuest(user1UUID, courseUUID).getLevel());
+
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishFlashCardSet(user1UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(gamificationController.getCurrentUserQuest(user1UUID, courseUUID).getFinished());
+    }
+
+    private int userLevel(UUID userUUID) {
+        QuestChainEntity questChain = questChainRepository.findByCourseUUID(courseUUID);
+        return questChain.levelOf(userQuestChainRepository.findByCourseUUIDAndUserUUID(courseUUID, userUUID));
+    }
+
+    private Map<UUID, Integer> progressPositions() {
+        Map<UUID, Integer> progressPositions = new HashMap<>();
+        for (UserQuestChainEntity userQuestChain : userQuestChainRepository.findByCourseUUID(courseUUID)) {
+            progressPositions.put(userQuestChain.getUserUUID(), userQuestChain.getProgressPosition());
+        }
+        return progressPositions;
+    }
+
+    /**
+     * Tests the levels of the users after deleting quests.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Deleting a quest at or after the level of a user keeps the level of the user.</li>
+     *   <li>Deleting a quest before the level of a user moves the user one level back.</li>
+     *   <li>The current quest of the users stays the same.</li>
+     *   <li>The userQuestChains are not written, the levels follow from the positions of the remaining quests.</li>
+     * </ul>
+     */
+    @Test
+    void userLevelShiftOnQuestDeletionTest() {
+        UUID quiz2UUID = UUID.randomUUID();
+        gamificationController.createQuiz(quiz2UUID, "Quiz 2", courseUUID, chapterUUID, 30, List.of(SkillType.REMEMBER));
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishQuiz(user2UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishFlashCardSet(user2UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+        Map<UUID, Integer> progressPositions = progressPositions();
+
+        assertEquals("FlashCardSet deleted.",
+                gamificationController.deleteBadgesAndQuestOfFlashCardSet(flashCardSetUUID, courseUUID, chapterUUID));
+        assertEquals(0, userLevel(lecturerUUID));
+        assertEquals(1, userLevel(user1UUID));
+        assertEquals(1, userLevel(user2UUID));
+        assertEquals(quiz2UUID, gamificationController.getCurrentUserQuest(user1UUID, courseUUID).getQuizUUID());
+        assertEquals(quiz2UUID, gamificationController.getCurrentUserQuest(user2UUID, courseUUID).getQuizUUID());
+
+        assertEquals("Quiz deleted.", gamificationController.deleteBadgesAndQuestOfQuiz(quizUUID, courseUUID, chapterUUID));
+        assertEquals(0, userLevel(lecturerUUID));
+        assertEquals(0, userLevel(user1UUID));
+        assertEquals(0, userLevel(user2UUID));
+        assertEquals(quiz2UUID, gamificationController.getCurrentUserQuest(user1UUID, courseUUID).getQuizUUID());
+        assertEquals(progressPositions, progressPositions());
+    }
+
+    /**
+     * Tests addressing the userQuestChains by the course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Every member has one userQuestChain of the course, which belongs to the quest chain of the course.</li>
+     *   <li>The userQuestChain of a user is counted with the quests of the course.</li>
+     *   <li>Removing a user from the course deletes only the userQuestChain of the user.</li>
+     * </ul>
+     */
+    @Test
+    void courseKeyedUserQuestChainTest() {
+        UUID questChainUUID = questChainRepository.findByCourseUUID(courseUUID).getQuestChainUUID();
+        for (UUID userUUID : List.of(lecturerUUID, user1UUID, user2UUID)) {
+            UserQuestChainEntity userQuestChain = userQuestChainRepository.findByCourseUUIDAndUserUUID(courseUUID, userUUID);
+            assertEquals(questChainUUID, userQuestChain.getQuestChainUUID());
+            assertEquals(courseUUID, userQuestChain.getCourseUUID());
+        }
+        assertEquals(3, userQuestChainRepository.findByCourseUUIDAndUserUUIDIn(courseUUID,
+                List.of(lecturerUUID, user1UUID, user2UUID, UUID.randomUUID())).size());
+
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishFlashCardSet(user1UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+        assertTrue(gamificationController.getUserQuestChain(user1UUID, courseUUID).getFinished());
+        assertFalse(gamificationController.getUserQuestChain(user2UUID, courseUUID).getFinished());
+
+        assertEquals("Removed user from course.", gamificationController.removeUserFromCourse(user2UUID, courseUUID));
+        assertNull(userQuestChainRepository.findByCourseUUIDAndUserUUID(courseUUID, user2UUID));
+        assertNotNull(userQuestChainRepository.findByCourseUUIDAndUserUUID(courseUUID, user1UUID));
+    }
+
+    /**
+     * Tests the current quest of a user in a longer quest chain and of a user, who is not a member of the course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The current quest is the quest at the level of the user, with the description of its content.</li>
+     *   <li>A user, who is not a member of the course, gets an empty quest.</li>
+     * </ul>
+     */
+    @Test
+    void currentQuestOfLongChainTest() {
+        List<UUID> quizUUIDs = new ArrayList<>(List.of(quizUUID));
+        for (int i = 2; i <= 5; i++) {
+            UUID newQuizUUID = UUID.randomUUID();
+            gamificationController.createQuiz(newQuizUUID, "Quiz " + i, courseUUID, chapterUUID, 10,
+                    List.of(SkillType.REMEMBER));
+            quizUUIDs.add(newQuizUUID);
+        }
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishFlashCardSet(user1UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUIDs.get(1), 10, 10, chapterUUID);
+        entityManager.flush();
+        entityManager.clear();
+
+        Quest quest = gamificationController.getCurrentUserQuest(user1UUID, courseUUID);
+        assertEquals(3, quest.getLevel());
+        assertEquals(quizUUIDs.get(2), quest.getQuizUUID());
+        assertNull(quest.getFlashCardSetUUID());
+        assertFalse(quest.getFinished());
+        assertEquals("Finish quiz Quiz 3 with at least 80% correct answers to unlock the next quest!",
+                quest.getDescription());
+
+        assertNull(gamificationController.getCurrentUserQuest(UUID.randomUUID(), courseUUID).getQuestUUID());
+    }
+
+    /**
+     * Tests moving a quest to another index of the quest chain.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The reloaded quest chain contains the moved quest at its new index.</li>
+     *   <li>A quest moved in front of the progress of a user counts as finished by the user.</li>
+     *   <li>Moving a quest to an invalid index or moving unknown content fails.</li>
+     * </ul>
+     */
+    @Test
+    void moveQuestTest() {
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+
+        assertEquals("Quest moved.", gamificationController.moveQuest(courseUUID, flashCardSetUUID, 0));
+        assertEquals(List.of(flashCardSetUUID, quizUUID), reloadedQuestContent());
+        assertEquals(2, userLevel(user1UUID));
+        assertEquals(0, userLevel(user2UUID));
+        assertEquals(flashCardSetUUID, gamificationController.getCurrentUserQuest(user2UUID, courseUUID).getFlashCardSetUUID());
+
+        assertEquals("Quest moved.", gamificationController.moveQuest(courseUUID, flashCardSetUUID, 0));
+        assertEquals("Error at moving quest.", gamificationController.moveQuest(courseUUID, quizUUID, 2));
+        assertEquals("Error at moving quest.", gamificationController.moveQuest(courseUUID, quizUUID, -1));
+        assertEquals("Error at moving quest.", gamificationController.moveQuest(courseUUID, UUID.randomUUID(), 0));
+        assertEquals(List.of(flashCardSetUUID, quizUUID), reloadedQuestContent());
+    }
+
+    /**
+     * Tests moving quests into the same gap until the positions of the quests are rebalanced.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The quests keep their order after the rebalancing and are numbered with the full gap again.</li>
+     *   <li>The users keep their levels, also the users whose progress positions were moved.</li>
+     * </ul>
+     */
+    @Test
+    void rebalanceQuestPositionsTest() {
+        UUID quiz2UUID = UUID.randomUUID();
+        UUID quiz3UUID = UUID.randomUUID();
+        gamificationController.createQuiz(quiz2UUID, "Quiz 2", courseUUID, chapterUUID, 30, List.of(SkillType.REMEMBER));
+        gamificationController.createQuiz(quiz3UUID, "Quiz 3", courseUUID, chapterUUID, 30, List.of(SkillType.REMEMBER));
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishQuiz(user2UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+        gamificationController.finishFlashCardSet(user2UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID);
+
+        // every move halves the gap behind the first quest, until the eleventh move rebalances the chain
+        for (int i = 0; i < 11; i++) {
+            assertEquals("Quest moved.", gamificationController.moveQuest(courseUUID, i % 2 == 0 ? quiz3UUID : quiz2UUID, 1));
+        }
+
+        assertEquals(List.of(quizUUID, quiz3UUID, quiz2UUID, flashCardSetUUID), reloadedQuestContent());
+        QuestChainEntity questChain = questChainRepository.findByCourseUUID(courseUUID);
+        assertEquals(QuestChainEntity.POSITION_GAP, questChain.getQuest(0).getChainPosition());
+        assertEquals(2 * QuestChainEntity.POSITION_GAP, questChain.getQuest(2).getChainPosition());
+        assertEquals(4 * QuestChainEntity.POSITION_GAP, questChain.getQuest(3).getChainPosition());
+        assertEquals(0, userLevel(lecturerUUID));
+        assertEquals(1, userLevel(user1UUID));
+        assertEquals(4, userLevel(user2UUID));
+        assertEquals(quiz3UUID, gamificationController.getCurrentUserQuest(user1UUID, courseUUID).getQuizUUID());
+        assertTrue(gamificationController.getCurrentUserQuest(user2UUID, courseUUID).getFinished());
+    }
+
+}
@@ -5,9 +5,10 @@ import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication
 import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.*;
 import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.*;
-import de.unistuttgart.iste.meitrex.gamification_service.service.BadgeService;
-import de.unistuttgart.iste.meitrex.gamification_service.service.QuestService;
+import de.unistuttgart.iste.meitrex.generated.dto.Quest;
 import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
+import de.unistuttgart.iste.meitrex.generated.dto.UserQuestChain;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -162,20 +163,32 @@ class QuizTest {
         assertEquals(9, badgeRepository.count());
         List<BadgeEntity> quizBadges = badgeRepository.findByQuizUUID(quiz);
         assertEquals(3, quizBadges.size());
+        String contentName = contentMetaDataRepository.findById(quiz).get().getName();
+        assertEquals(name, contentName);
 
         List<UserBadgeEntity> quizUserBadges = new LinkedList<>();
+        Set<UUID> badgeUUIDs = new HashSet<>();
         for (BadgeEntity badge : quizBadges) {
             int passingPercentage = badge.getPassingPercentage();
             assertEquals(courseUUID, badge.getCourseUUID());
             assertTrue(50 == passingPercentage || 70 == passingPercentage || 90 == passingPercentage);
             assertEquals(quiz, badge.getQuizUUID());
             assertNull(badge.getFlashCardSetUUID());
-            assertEquals(BadgeService.descriptionPart1 + passingPercentage + BadgeService.descriptionPart2 +
-                    "quiz " + name + BadgeService.descriptionPart3, badge.getDescription());
+            badgeUUIDs.add(badge.getBadgeUUID());
 
             quizUserBadges.addAll(userBadgeRepository.findByBadgeUUID(badge.getBadgeUUID()));
         }
 
+        List<UserBadge> userBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID).stream()
+                .filter(userBadge -> badgeUUIDs.contains(userBadge.getBadgeUUID()))
+                .toList();
+        assertEquals(3, userBadges.size());
+        Map<UserBadge, String> descriptions = gamificationController.description(userBadges);
+        for (UserBadge userBadge : userBadges) {
+            assertEquals("At least " + userBadge.getPassingPercentage()
+                    + "% of your answers for the quiz Quiz 2 are correct.", descriptions.get(userBadge));
+        }
+
         assertEquals(27, userBadgeRepository.count());
         assertEquals(9, quizUserBadges.size());
         for (UserBadgeEntity userBadge : quizUserBadges) {
@@ -519,9 +532,9 @@ class QuizTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(0, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -567,9 +580,9 @@ class QuizTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -616,9 +629,9 @@ class QuizTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -667,9 +680,9 @@ class QuizTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(4, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -716,9 +729,9 @@ class QuizTest {
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
         assertEquals(3, userQuestChainRepository.count());
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(1, user2QuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(1, questChainEntity.levelOf(user2QuestChainEntity));
 
     }
 
@@ -745,17 +758,27 @@ class QuizTest {
 
         List<BadgeEntity> quizBadges = badgeRepository.findByQuizUUID(quizUUID);
         assertEquals(3, quizBadges.size());
+        Set<UUID> badgeUUIDs = new HashSet<>();
         for (BadgeEntity badge : quizBadges) {
-            int passingPercentage = badge.getPassingPercentage();
-            assertEquals(BadgeService.descriptionPart1 + passingPercentage + BadgeService.descriptionPart2 +
-                    "quiz " + newName + BadgeService.descriptionPart3, badge.getDescription());
+            badgeUUIDs.add(badge.getBadgeUUID());
+        }
+        List<UserBadge> userBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID).stream()
+                .filter(userBadge -> badgeUUIDs.contains(userBadge.getBadgeUUID()))
+                .toList();
+        assertEquals(3, userBadges.size());
+        Map<UserBadge, String> descriptions = gamificationController.description(userBadges);
+        for (UserBadge userBadge : userBadges) {
+            int passingPercentage = userBadge.getPassingPercentage();
+            assertEquals("At least " + passingPercentage + "% of your answers for the quiz New Name are correct.",
+                    descriptions.get(userBadge));
         }
 
         QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
         int index = questChainEntity.findIndexOfQuizQuest(quizUUID);
-        QuestEntity quest = questChainEntity.getQuest(index);
-        assertEquals(QuestService.descriptionPart1 + "quiz " + newName +
-                QuestService.descriptionPart2 + 80 + QuestService.descriptionPart3, quest.getDescription());
+        UserQuestChain userQuestChain = gamificationController.getUserQuestChain(user1UUID, courseUUID);
+        Quest quest = gamificationController.quests(List.of(userQuestChain)).get(userQuestChain).get(index);
+        assertEquals("Finish quiz New Name with at least 80% correct answers to unlock the next quest!",
+                quest.getDescription());
 
         Optional<ContentMetaDataEntity> quizMetaData = contentMetaDataRepository.findById(quizUUID);
 
@@ -764,6 +787,38 @@ class QuizTest {
         assertEquals(55, quizMetaData.get().getSkillPoints());
     }
 
+    /**
+     * Tests moving a quiz to another chapter by editing it.
+     * <p>
+     * This test verifies that the quiz is removed from the chapter it was stored in and not from the chapter it is
+     * moved to.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The required exp of the old chapter decreased by the exp of the quiz.</li>
+     *   <li>The required exp of the new chapter is not decreased.</li>
+     *   <li>The metadata of the quiz is placed in the new chapter.</li>
+     * </ul>
+     */
+    @Test
+    void editQuizToOtherChapterTest() {
+        UUID chapter2UUID = UUID.randomUUID();
+        gamificationController.addChapter(courseUUID, chapter2UUID);
+
+        assertEquals("Changed quiz data!", gamificationController.editQuiz(quizUUID,
+                courseUUID, chapter2UUID, "Quiz 1", 50, List.of(SkillType.ANALYSE)));
+
+        Optional<CourseEntity> courseEntity = courseRepository.findById(courseUUID);
+        assertTrue(courseEntity.isPresent());
+        assertEquals(30, courseEntity.get().getRequiredExpOfLevel(0));
+        assertTrue(courseEntity.get().getRequiredExpOfLevel(1) >= 0);
+
+        Optional<ContentMetaDataEntity> quizMetaData = contentMetaDataRepository.findById(quizUUID);
+        assertTrue(quizMetaData.isPresent());
+        assertEquals(chapter2UUID, quizMetaData.get().getChapterUUID());
+        assertEquals(Integer.valueOf(1), quizMetaData.get().getLevel());
+    }
+
     /**
      * Tests the editing of a quiz, that does not exist.
      * <p>
@@ -1147,9 +1202,9 @@ class QuizTest {
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user1UUID);
         UserQuestChainEntity user2QuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user2UUID);
-        assertEquals(1, lecturerQuestChainEntity.getUserLevel());
-        assertEquals(0, user1QuestChainEntity.getUserLevel());
-        assertEquals(0, user2QuestChainEntity.getUserLevel());
+        assertEquals(1, questChainEntity.levelOf(lecturerQuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user1QuestChainEntity));
+        assertEquals(0, questChainEntity.levelOf(user2QuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         BloomLevelEntity user1BloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID);
@@ -1163,6 +1218,43 @@ class QuizTest {
 
     }
 
+    /**
+     * Tests the completion of a quiz, that was created before the chapter of the content was stored.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The quiz can not be finished and its metadata is not changed by the finish.</li>
+     *   <li>Editing the quiz places it in the chapter, so it can be finished afterwards.</li>
+     * </ul>
+     */
+    @Test
+    void finishQuizCreatedBeforeChapterWasStoredTest() {
+        ContentMetaDataEntity quizMetaData = contentMetaDataRepository.findById(quizUUID).get();
+        quizMetaData.setChapterUUID(null);
+        quizMetaData.setLevel(null);
+        contentMetaDataRepository.save(quizMetaData);
+
+        assertEquals("Error at finishing quiz.",
+                gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 5, 10, chapterUUID));
+
+        BloomLevelEntity user1BloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID);
+        assertEquals(0, user1BloomLevel.getCollectedExp());
+        quizMetaData = contentMetaDataRepository.findById(quizUUID).get();
+        assertNull(quizMetaData.getChapterUUID());
+        assertNull(quizMetaData.getLevel());
+
+        assertEquals("Changed quiz data!", gamificationController.editQuiz(quizUUID, courseUUID, chapterUUID,
+                "Quiz 1", 50, List.of(SkillType.ANALYSE, SkillType.REMEMBER)));
+        quizMetaData = contentMetaDataRepository.findById(quizUUID).get();
+        assertEquals(chapterUUID, quizMetaData.getChapterUUID());
+        assertEquals(Integer.valueOf(0), quizMetaData.getLevel());
+
+        assertEquals("Finished quiz!",
+                gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 5, 10, chapterUUID));
+        user1BloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID);
+        assertEquals(50, user1BloomLevel.getCollectedExp());
+    }
+
     /**
      * Tests the completion of a quiz by a users for an invalid number of correct answers.
      * <p>
@@ -1195,7 +1287,7 @@ class QuizTest {
         UserQuestChainEntity lecturerQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
@@ -1219,7 +1311,7 @@ class QuizTest {
         questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
         lecturerQuestChainEntity = userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
@@ -1261,7 +1353,7 @@ class QuizTest {
         UserQuestChainEntity lecturerQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
@@ -1303,6 +1395,41 @@ class QuizTest {
 
     }
 
+    /**
+     * Tests the completion of a quiz, with the id of a flashCardSet.
+     * <p>
+     * This test verifies that a flashCardSet can not be finished as a quiz, so the user is not rewarded
+     * for the flashCardSet under the wrong mutation.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>No changes in the repositories.</li>
+     * </ul>
+     */
+    @Test
+    void finishQuizWithFlashCardSetTest() {
+
+        assertEquals("Error at finishing quiz.",
+                gamificationController.finishQuiz(user1UUID, courseUUID, flashCardSetUUID, 10, 10, chapterUUID));
+
+        List<BadgeEntity> flashCardSetBadges = badgeRepository.findByFlashCardSetUUID(flashCardSetUUID);
+        assertEquals(3, flashCardSetBadges.size());
+        for (BadgeEntity badge : flashCardSetBadges) {
+            UserBadgeEntity userBadge = userBadgeRepository.findByUserUUIDAndBadgeUUID(user1UUID, badge.getBadgeUUID());
+            assertNotNull(userBadge);
+            assertFalse(userBadge.isAchieved());
+        }
+
+        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
+        UserQuestChainEntity userQuestChainEntity =
+                userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user1UUID);
+        assertEquals(0, questChainEntity.levelOf(userQuestChainEntity));
+
+        BloomLevelEntity userBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID);
+        assertEquals(0, userBloomLevel.getCollectedExp());
+
+    }
+
     /**
      * Tests the completion of a quiz, with a course, that does not exist and the wrong course id.
      * <p>
@@ -1362,7 +1489,7 @@ class QuizTest {
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(questChainEntity);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, course);
         assertNotNull(lecturerBloomLevel);
@@ -1405,7 +1532,7 @@ class QuizTest {
         UserQuestChainEntity lecturerQuestChainEntity =
                 userQuestChainRepository.findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID);
         assertNotNull(lecturerQuestChainEntity);
-        assertEquals(0, lecturerQuestChainEntity.getUserLevel());
+        assertEquals(0, questChainEntity.levelOf(lecturerQuestChainEntity));
 
         BloomLevelEntity lecturerBloomLevel = bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID);
         assertNotNull(lecturerBloomLevel);
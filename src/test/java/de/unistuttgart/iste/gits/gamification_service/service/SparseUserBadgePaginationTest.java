@@ -0,0 +1,11 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the tests of {@link UserBadgePaginationTest} with the sparse storage of the userBadges, which is the default
+ * of the application, while the other tests save the userBadges of every member.
+ */
+@TestPropertySource(properties = "gamification.badges.storage=sparse")
+class SparseUserBadgePaginationTest extends UserBadgePaginationTest {
+}
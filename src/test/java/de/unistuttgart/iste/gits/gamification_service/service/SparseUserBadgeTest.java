@@ -0,0 +1,176 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeRepository;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the sparse storage of the userBadges.
+ * <p>
+ * This test class verifies that only achieved userBadges are saved and that the not achieved ones
+ * are still returned for the members of the course.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@TestPropertySource(properties = "gamification.badges.storage=sparse")
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class SparseUserBadgeTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Tests creating a course with content in the sparse storage.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>No userBadges are saved for creating content or enrolling users.</li>
+     *   <li>Every member still gets all 6 badges of the course as not achieved, with stable ids.</li>
+     * </ul>
+     */
+    @Test
+    void noUserBadgesSavedTest() {
+        assertEquals(0, userBadgeRepository.count());
+
+        List<UserBadge> user2UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user2UUID);
+        assertEquals(6, user2UserBadges.size());
+        for (UserBadge userBadge : user2UserBadges) {
+            assertFalse(userBadge.getAchieved());
+            assertEquals(user2UUID, userBadge.getUserUUID());
+        }
+        assertEquals(user2UserBadges, gamificationController.getCoursesUserBadges(courseUUID, user2UUID));
+
+        assertTrue(gamificationController.getCoursesUserBadges(courseUUID, UUID.randomUUID()).isEmpty());
+    }
+
+    /**
+     * Tests finishing a quiz in the sparse storage.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Only the achieved bronze and silver badges of the quiz are saved.</li>
+     *   <li>Finishing the quiz again with the same result saves no further userBadges.</li>
+     *   <li>The userBadges of the user contain 2 achieved and 4 not achieved badges.</li>
+     * </ul>
+     */
+    @Test
+    void finishQuizTest() {
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 8, 10, chapterUUID);
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 8, 10, chapterUUID);
+
+        List<UserBadgeEntity> userBadgeEntities = userBadgeRepository.findAll();
+        assertEquals(2, userBadgeEntities.size());
+        for (UserBadgeEntity userBadgeEntity : userBadgeEntities) {
+            assertEquals(user1UUID, userBadgeEntity.getUserUUID());
+            assertTrue(userBadgeEntity.isAchieved());
+        }
+
+        List<UserBadge> user1UserBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID);
+        assertEquals(6, user1UserBadges.size());
+        assertEquals(2, user1UserBadges.stream().filter(UserBadge::getAchieved).count());
+    }
+
+    /**
+     * Tests saving the achieved userBadge of a badge, that the user already has a userBadge for.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The userBadge is saved once and is achieved.</li>
+     *   <li>Saving it again changes nothing, so the user never gets the badge twice.</li>
+     * </ul>
+     */
+    @Test
+    void upsertAchievedUserBadgeTwiceTest() {
+        UUID badgeUUID = gamificationController.getCoursesUserBadges(courseUUID, user1UUID).get(0).getBadgeUUID();
+
+        assertEquals(1, userBadgeRepository.upsertAchieved(user1UUID, badgeUUID));
+        assertEquals(0, userBadgeRepository.upsertAchieved(user1UUID, badgeUUID));
+        assertEquals(0, userBadgeRepository.insertIfAbsent(user1UUID, badgeUUID, false));
+
+        List<UserBadgeEntity> userBadgeEntities = userBadgeRepository.findAll();
+        assertEquals(1, userBadgeEntities.size());
+        assertTrue(userBadgeEntities.get(0).isAchieved());
+    }
+
+}
@@ -0,0 +1,248 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.SubscriptionController;
+import de.unistuttgart.iste.meitrex.gamification_service.dapr.*;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.*;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.*;
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import io.dapr.client.domain.CloudEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the dapr pub/sub subscriptions.
+ * <p>
+ * This test class verifies that the received events are buffered and applied in micro-batches per course
+ * in the same way as the GraphQL mutations apply them.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class SubscriptionControllerTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private QuestChainRepository questChainRepository;
+
+    @Autowired
+    private UserQuestChainRepository userQuestChainRepository;
+
+    @Autowired
+    private BloomLevelRepository bloomLevelRepository;
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+    @Autowired
+    private SubscriptionController subscriptionController;
+
+    @Autowired
+    private CourseEventBuffer courseEventBuffer;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    private <T> CloudEvent<T> cloudEvent(T data) {
+        return cloudEvent(UUID.randomUUID().toString(), data);
+    }
+
+    private <T> CloudEvent<T> cloudEvent(String id, T data) {
+        CloudEvent<T> cloudEvent = new CloudEvent<>();
+        cloudEvent.setId(id);
+        cloudEvent.setData(data);
+        return cloudEvent;
+    }
+
+    private ContentProgressedEvent contentProgressed(UUID userUUID, UUID contentUUID, int correctAnswers) {
+        return new ContentProgressedEvent(userUUID, courseUUID, chapterUUID, contentUUID, correctAnswers, 10);
+    }
+
+    /**
+     * Tests receiving content-progressed events.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The events are only buffered and not acknowledged until the buffer is flushed.</li>
+     *   <li>After the flush, the experience points and quest levels are updated like by the finish mutations.</li>
+     *   <li>The events are acknowledged after they were processed.</li>
+     * </ul>
+     */
+    @Test
+    void contentProgressedTest() {
+        List<CompletableFuture<Void>> acknowledgements = List.of(
+                subscriptionController.onContentProgressed(cloudEvent(contentProgressed(lecturerUUID, quizUUID, 9))).toFuture(),
+                subscriptionController.onContentProgressed(cloudEvent(contentProgressed(lecturerUUID, flashCardSetUUID, 10))).toFuture(),
+                subscriptionController.onContentProgressed(cloudEvent(contentProgressed(user1UUID, flashCardSetUUID, 10))).toFuture());
+
+        assertEquals(3, courseEventBuffer.getPendingEvents());
+        assertEquals(0, bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID).getCollectedExp());
+        assertTrue(acknowledgements.stream().noneMatch(CompletableFuture::isDone));
+
+        courseEventBuffer.flush();
+
+        assertEquals(0, courseEventBuffer.getPendingEvents());
+        assertTrue(acknowledgements.stream().allMatch(acknowledgement -> acknowledgement.isDone()
+                && ! acknowledgement.isCompletedExceptionally()));
+        assertEquals(180, bloomLevelRepository.findByUserUUIDAndCourseUUID(lecturerUUID, courseUUID).getCollectedExp());
+        assertEquals(90, bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID).getCollectedExp());
+
+        QuestChainEntity questChainEntity = questChainRepository.findByCourseUUID(courseUUID);
+        assertEquals(2, questChainEntity.levelOf(userQuestChainRepository
+                .findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), lecturerUUID)));
+        assertEquals(0, questChainEntity.levelOf(userQuestChainRepository
+                .findByQuestChainUUIDAndUserUUID(questChainEntity.getQuestChainUUID(), user1UUID)));
+    }
+
+    /**
+     * Tests receiving user-enrolled, content-created and content-progressed events in one micro-batch.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The events are applied in the order they were received.</li>
+     *   <li>The enrolled user can finish the created quiz within the same micro-batch.</li>
+     * </ul>
+     */
+    @Test
+    void mixedEventsTest() {
+        UUID user3UUID = UUID.randomUUID();
+        UUID newQuizUUID = UUID.randomUUID();
+
+        subscriptionController.onUserEnrolled(cloudEvent(new UserEnrolledEvent(user3UUID, courseUUID))).subscribe();
+        subscriptionController.onContentCreated(cloudEvent(new ContentCreatedEvent(newQuizUUID,
+                ContentCreatedEvent.ContentType.QUIZ, "New Quiz", courseUUID, chapterUUID, 40,
+                List.of(SkillType.REMEMBER)))).subscribe();
+        subscriptionController.onContentProgressed(cloudEvent(contentProgressed(user3UUID, newQuizUUID, 10))).subscribe();
+
+        courseEventBuffer.flush();
+
+        assertEquals(3, badgeRepository.findByQuizUUID(newQuizUUID).size());
+        assertNotNull(bloomLevelRepository.findByUserUUIDAndCourseUUID(user3UUID, courseUUID));
+        assertTrue(bloomLevelRepository.findByUserUUIDAndCourseUUID(user3UUID, courseUUID).getCollectedExp() > 0);
+    }
+
+    /**
+     * Tests receiving a content-progressed event again, like dapr redelivers events that were not acknowledged.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The redelivered event is acknowledged, but not processed a second time.</li>
+     *   <li>The experience points are only granted once.</li>
+     * </ul>
+     */
+    @Test
+    void redeliveredEventTest() {
+        String eventId = UUID.randomUUID().toString();
+        subscriptionController.onContentProgressed(cloudEvent(eventId, contentProgressed(user1UUID, quizUUID, 10))).subscribe();
+        courseEventBuffer.flush();
+        int collectedExp = bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID).getCollectedExp();
+        assertTrue(collectedExp > 0);
+
+        CompletableFuture<Void> acknowledgement = subscriptionController
+                .onContentProgressed(cloudEvent(eventId, contentProgressed(user1UUID, quizUUID, 10))).toFuture();
+        courseEventBuffer.flush();
+
+        assertTrue(acknowledgement.isDone());
+        assertFalse(acknowledgement.isCompletedExceptionally());
+        assertEquals(collectedExp, bloomLevelRepository.findByUserUUIDAndCourseUUID(user1UUID, courseUUID).getCollectedExp());
+    }
+
+    /**
+     * Tests receiving a content-progressed event of a user, who is not a member of the course, together with a
+     * valid event.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The event of the user, who is not a member, fails, so it is redelivered.</li>
+     *   <li>The valid event is acknowledged.</li>
+     * </ul>
+     */
+    @Test
+    void rejectedEventTest() {
+        CompletableFuture<Void> validAcknowledgement = subscriptionController
+                .onContentProgressed(cloudEvent(contentProgressed(user1UUID, quizUUID, 10))).toFuture();
+        CompletableFuture<Void> rejectedAcknowledgement = subscriptionController
+                .onContentProgressed(cloudEvent(contentProgressed(UUID.randomUUID(), quizUUID, 10))).toFuture();
+
+        courseEventBuffer.flush();
+
+        assertTrue(validAcknowledgement.isDone());
+        assertFalse(validAcknowledgement.isCompletedExceptionally());
+        assertTrue(rejectedAcknowledgement.isCompletedExceptionally());
+    }
+
+}
@@ -0,0 +1,128 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.entity.UserBadgeEntity;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeBulkWriter;
+import de.unistuttgart.iste.meitrex.gamification_service.persistence.repository.UserBadgeRepository;
+import de.unistuttgart.iste.meitrex.gamification_service.service.BadgeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for inserting the userBadges of the eager storage.
+ * <p>
+ * This test class compares saving the userBadges one at a time, with one statement per userBadge, with the bulk
+ * writer, which inserts a chunk of users with one statement. The chunk size does not divide the number of users,
+ * so the last chunk is smaller.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@TestPropertySource(properties = {
+        "gamification.badges.bulk-insert-size=300",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class UserBadgeBulkWriterTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private UserBadgeBulkWriter userBadgeBulkWriter;
+
+    @Autowired
+    private BadgeService badgeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final int USERS = 1000;
+
+    private static final int BADGES = 3;
+
+    private static List<UUID> randomUUIDs(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+
+    /**
+     * Inserts the userBadges for the badges of a quiz in a course with 1,000 members, one at a time and in bulk.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Saving the userBadges one at a time sends one insert per userBadge.</li>
+     *   <li>Both ways insert one not achieved userBadge per user and badge.</li>
+     *   <li>Inserting the same userBadges in bulk again inserts nothing.</li>
+     * </ul>
+     */
+    @Test
+    void insertUnachievedTest() {
+        List<UUID> users = randomUUIDs(USERS);
+        List<UUID> badges = randomUUIDs(BADGES);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (UUID badge : badges) {
+            for (UUID user : users) {
+                badgeService.assignBadgeToUser(user, badge);
+            }
+        }
+        assertEquals(USERS * BADGES, statistics.getPrepareStatementCount());
+        assertEquals(USERS * BADGES, userBadgeRepository.count());
+
+        List<UUID> bulkBadges = randomUUIDs(BADGES);
+        assertEquals(USERS * BADGES, userBadgeBulkWriter.insertUnachieved(users, bulkBadges));
+        assertEquals(0, userBadgeBulkWriter.insertUnachieved(users, bulkBadges));
+
+        assertEquals(2 * USERS * BADGES, userBadgeRepository.count());
+        for (UUID badge : bulkBadges) {
+            List<UserBadgeEntity> userBadges = userBadgeRepository.findByBadgeUUID(badge);
+            assertEquals(USERS, userBadges.size());
+            assertTrue(userBadges.stream().noneMatch(UserBadgeEntity::isAchieved));
+        }
+    }
+
+}
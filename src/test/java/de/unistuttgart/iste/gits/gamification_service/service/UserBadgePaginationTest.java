@@ -0,0 +1,218 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.gamification_service.service.BadgeService;
+import de.unistuttgart.iste.meitrex.generated.dto.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the paginated retrieval of the userBadges of a course.
+ * <p>
+ * This test class verifies that the pages of the userBadges follow each other without gaps or duplicates
+ * and that the filters select the expected userBadges.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class UserBadgePaginationTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    private UserBadgeFilter filter(Boolean achieved, BadgeTier tier, BadgeContentType contentType) {
+        UserBadgeFilter filter = new UserBadgeFilter();
+        filter.setAchieved(achieved);
+        filter.setTier(tier);
+        filter.setContentType(contentType);
+        return filter;
+    }
+
+    private List<UserBadge> page(UUID userUUID, UserBadgeFilter filter) {
+        return gamificationController.getCoursesUserBadgesPage(courseUUID, userUUID, filter, 10, null).getElements();
+    }
+
+    /**
+     * Tests paging through the userBadges of a course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The first page contains 4 userBadges and has a next page.</li>
+     *   <li>The second page contains the remaining 2 userBadges and has no next page.</li>
+     *   <li>Together the pages contain every userBadge of the user once, ordered by the passing percentage.</li>
+     *   <li>The page after the last page is empty.</li>
+     * </ul>
+     */
+    @Test
+    void paginationTest() {
+        UserBadgePage firstPage = gamificationController.getCoursesUserBadgesPage(courseUUID, user1UUID, null, 4, null);
+        assertEquals(4, firstPage.getElements().size());
+        assertTrue(firstPage.getHasNext());
+        assertNotNull(firstPage.getEndCursor());
+
+        UserBadgePage secondPage = gamificationController.getCoursesUserBadgesPage(courseUUID, user1UUID, null, 4,
+                firstPage.getEndCursor());
+        assertEquals(2, secondPage.getElements().size());
+        assertFalse(secondPage.getHasNext());
+
+        List<UserBadge> userBadges = new ArrayList<>(firstPage.getElements());
+        userBadges.addAll(secondPage.getElements());
+        assertEquals(List.of(50, 50, 70, 70, 90, 90), userBadges.stream().map(UserBadge::getPassingPercentage).toList());
+        Set<UUID> badgeUUIDs = new HashSet<>();
+        userBadges.forEach(userBadge -> badgeUUIDs.add(userBadge.getBadgeUUID()));
+        Set<UUID> allBadgeUUIDs = new HashSet<>();
+        gamificationController.getCoursesUserBadges(courseUUID, user1UUID)
+                .forEach(userBadge -> allBadgeUUIDs.add(userBadge.getBadgeUUID()));
+        assertEquals(allBadgeUUIDs, badgeUUIDs);
+
+        UserBadgePage lastPage = gamificationController.getCoursesUserBadgesPage(courseUUID, user1UUID, null, 4,
+                secondPage.getEndCursor());
+        assertTrue(lastPage.getElements().isEmpty());
+        assertFalse(lastPage.getHasNext());
+        assertNull(lastPage.getEndCursor());
+    }
+
+    /**
+     * Tests filtering the userBadges of a course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>After finishing the quiz with 80%, the bronze and silver badges of the quiz are the achieved ones.</li>
+     *   <li>The filters on the tier and the content type select the badges of the tier and the content.</li>
+     *   <li>Several filters are combined.</li>
+     * </ul>
+     */
+    @Test
+    void filterTest() {
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 8, 10, chapterUUID);
+
+        List<UserBadge> achieved = page(user1UUID, filter(true, null, null));
+        assertEquals(List.of(50, 70), achieved.stream().map(UserBadge::getPassingPercentage).toList());
+        assertTrue(achieved.stream().allMatch(UserBadge::getAchieved));
+        assertEquals(4, page(user1UUID, filter(false, null, null)).size());
+        assertEquals(6, page(user2UUID, filter(false, null, null)).size());
+
+        List<UserBadge> gold = page(user1UUID, filter(null, BadgeTier.GOLD, null));
+        assertEquals(2, gold.size());
+        assertTrue(gold.stream().allMatch(userBadge -> userBadge.getPassingPercentage() == 90));
+
+        List<UserBadge> flashCardSetBadges = page(user1UUID, filter(null, null, BadgeContentType.FLASH_CARD_SET));
+        assertEquals(3, flashCardSetBadges.size());
+        assertTrue(flashCardSetBadges.stream().noneMatch(UserBadge::getAchieved));
+
+        assertTrue(page(user1UUID, filter(false, BadgeTier.SILVER, BadgeContentType.QUIZ)).isEmpty());
+        assertEquals(1, page(user1UUID, filter(true, BadgeTier.SILVER, BadgeContentType.QUIZ)).size());
+    }
+
+    /**
+     * Tests retrieving a page with an invalid cursor or for a user, who is not a member of the course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>Both pages are empty.</li>
+     * </ul>
+     */
+    @Test
+    void emptyPageTest() {
+        assertTrue(gamificationController.getCoursesUserBadgesPage(courseUUID, user1UUID, null, 4, "no cursor")
+                .getElements().isEmpty());
+        assertTrue(gamificationController.getCoursesUserBadgesPage(courseUUID, UUID.randomUUID(), null, 4, null)
+                .getElements().isEmpty());
+    }
+
+    /**
+     * Tests retrieving a page, that is larger than the maximum page size.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The page is cut to the maximum page size and has a next page.</li>
+     * </ul>
+     */
+    @Test
+    void maxPageSizeTest() {
+        for (int i = 0; i < 33; i++) {
+            gamificationController.createQuiz(UUID.randomUUID(), "Quiz " + (i + 2), courseUUID, chapterUUID, 10,
+                    List.of(SkillType.REMEMBER));
+        }
+
+        UserBadgePage page = gamificationController.getCoursesUserBadgesPage(courseUUID, user1UUID, null,
+                Integer.MAX_VALUE, null);
+        assertEquals(BadgeService.maxPageSize, page.getElements().size());
+        assertTrue(page.getHasNext());
+    }
+
+}
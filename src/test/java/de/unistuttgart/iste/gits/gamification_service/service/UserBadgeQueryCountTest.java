@@ -0,0 +1,192 @@
+package de.unistuttgart.iste.gits.gamification_service.service;
+
+import de.unistuttgart.iste.gits.gamification_service.test_utils.TestUtils;
+import de.unistuttgart.iste.meitrex.gamification_service.GamificationApplication;
+import de.unistuttgart.iste.meitrex.gamification_service.controller.GamificationController;
+import de.unistuttgart.iste.meitrex.generated.dto.SkillType;
+import de.unistuttgart.iste.meitrex.generated.dto.UserBadge;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Unit tests for the number of queries needed to retrieve the userBadges of a course.
+ * <p>
+ * This test class verifies that the userBadges of a course are loaded with a fixed number of queries,
+ * regardless of the number of badges in the course.
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = GamificationApplication.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional // Each test method runs in a transaction that is rolled back after the test completes
+class UserBadgeQueryCountTest {
+
+    // Required to run tests for the repositories using Testcontainers
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13")
+            .withDatabaseName("testdb")
+            .withUsername("root")
+            .withPassword("root");
+
+    /**
+     * Starts the PostgreSQL container before all tests are executed.
+     */
+    @BeforeAll
+    static void startContainer() {
+        postgres.start();
+    }
+
+    /**
+     * Configures the database properties for the tests.
+     *
+     * @param registry the registry to add the dynamic properties to
+     */
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private GamificationController gamificationController;
+
+
+    private UUID courseUUID;
+    private UUID lecturerUUID;
+    private UUID user1UUID;
+    private UUID user2UUID;
+    private UUID quizUUID;
+    private UUID flashCardSetUUID;
+    private UUID chapterUUID;
+
+    /**
+     * Sets up a test course before each test.
+     */
+    @BeforeEach
+    void createTestCourse() {
+        this.courseUUID = UUID.randomUUID();
+        this.lecturerUUID = UUID.randomUUID();
+        this.user1UUID = UUID.randomUUID();
+        this.user2UUID = UUID.randomUUID();
+        this.quizUUID = UUID.randomUUID();
+        this.flashCardSetUUID = UUID.randomUUID();
+        this.chapterUUID = UUID.randomUUID();
+
+        TestUtils.createTestCourse(gamificationController,
+                courseUUID,
+                lecturerUUID,
+                user1UUID,
+                user2UUID,
+                quizUUID,
+                flashCardSetUUID,
+                chapterUUID);
+    }
+
+    /**
+     * Counts the statements that are prepared for retrieving the userBadges of the user at the course.
+     *
+     * @param userUUID   the id of the user
+     *
+     * @return the number of prepared statements
+     */
+    private long countQueriesOfGetCoursesUserBadges(UUID userUUID) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UserBadge> userBadges = gamificationController.getCoursesUserBadges(courseUUID, userUUID);
+        assertFalse(userBadges.isEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Tests the number of queries for retrieving the userBadges of a course.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The userBadges are retrieved with the same number of queries for 6 and for 126 badges.</li>
+     *   <li>The userBadges are retrieved with at most 2 queries.</li>
+     *   <li>The achieved userBadges are still returned as achieved.</li>
+     * </ul>
+     */
+    @Test
+    void getCoursesUserBadgesQueryCountTest() {
+        gamificationController.finishQuiz(user1UUID, courseUUID, quizUUID, 10, 10, chapterUUID);
+
+        long queriesForFewBadges = countQueriesOfGetCoursesUserBadges(user1UUID);
+
+        for (int i = 0; i < 40; i++) {
+            gamificationController.createQuiz(UUID.randomUUID(), "Quiz " + (i + 2), courseUUID, chapterUUID,
+                    10, List.of(SkillType.REMEMBER));
+        }
+
+        long queriesForManyBadges = countQueriesOfGetCoursesUserBadges(user1UUID);
+
+        assertEquals(queriesForFewBadges, queriesForManyBadges);
+        assertTrue(queriesForManyBadges <= 2);
+
+        List<UserBadge> userBadges = gamificationController.getCoursesUserBadges(courseUUID, user1UUID);
+        assertEquals(126, userBadges.size());
+        assertEquals(3, userBadges.stream().filter(UserBadge::getAchieved).count());
+        assertEquals(123, userBadges.stream().filter(userBadge -> ! userBadge.getAchieved()).count());
+    }
+
+    /**
+     * Tests the number of queries for resolving the descriptions of the userBadges of several users.
+     * <p>
+     * Expected Outcome:
+     * <ul>
+     *   <li>The descriptions of the userBadges of all users are resolved with one query.</li>
+     *   <li>Every userBadge gets the description of its badge.</li>
+     * </ul>
+     */
+    @Test
+    void batchedDescriptionsQueryCountTest() {
+        List<UserBadge> userBadges = new ArrayList<>();
+        for (UUID userUUID : List.of(lecturerUUID, user1UUID, user2UUID)) {
+            userBadges.addAll(gamificationController.getCoursesUserBadges(courseUUID, userUUID));
+        }
+        assertEquals(18, userBadges.size());
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Map<UserBadge, String> descriptions = gamificationController.description(userBadges);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        for (UserBadge userBadge : userBadges) {
+            assertTrue(descriptions.get(userBadge).equals("At least " + userBadge.getPassingPercentage()
+                    + "% of your answers for the quiz Quiz 1 are correct.")
+                    || descriptions.get(userBadge).equals("At least " + userBadge.getPassingPercentage()
+                    + "% of your answers for the flashCardSet FCS 1 are correct."));
+        }
+    }
+
+}